@@ -0,0 +1,34 @@
+package com.demo.ratelimiter.loadgen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Wraps another distribution and replaces a share of its tokens with tokens that have never been seen before.
+ * This models clients that keep rotating keys and exercises the service's handling of new map entries.
+ */
+public class ChurnKeyDistribution implements KeyDistribution {
+
+    private final KeyDistribution delegate;
+    private final double newTokenRatio;
+    private final String tokenPrefix;
+    private final SplittableRandom random;
+    private long newTokens;
+
+    public ChurnKeyDistribution(KeyDistribution delegate, double newTokenRatio, String tokenPrefix, SplittableRandom random) {
+        if (newTokenRatio < 0 || newTokenRatio > 1) {
+            throw new IllegalArgumentException("newTokenRatio must be between 0 and 1");
+        }
+        this.delegate = delegate;
+        this.newTokenRatio = newTokenRatio;
+        this.tokenPrefix = tokenPrefix;
+        this.random = random;
+    }
+
+    @Override
+    public String nextToken() {
+        if (random.nextDouble() < newTokenRatio) {
+            return tokenPrefix + "churn-" + (newTokens++);
+        }
+        return delegate.nextToken();
+    }
+}
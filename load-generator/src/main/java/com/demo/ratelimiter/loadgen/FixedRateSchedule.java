@@ -0,0 +1,39 @@
+package com.demo.ratelimiter.loadgen;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-loop schedule with a constant arrival rate: request {@code i} is due at {@code i / rate} seconds,
+ * no matter how long earlier requests take to complete.
+ */
+public class FixedRateSchedule implements RequestSchedule {
+
+    private final double intervalNanos;
+    private final long totalRequests;
+    private final KeyDistribution keys;
+    private long sent;
+
+    public FixedRateSchedule(double requestsPerSecond, long durationSeconds, KeyDistribution keys) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive");
+        }
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        this.totalRequests = (long) (requestsPerSecond * durationSeconds);
+        this.keys = keys;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return sent < totalRequests;
+    }
+
+    @Override
+    public ScheduledRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long offset = (long) (sent++ * intervalNanos);
+        return new ScheduledRequest(offset, keys.nextToken());
+    }
+}
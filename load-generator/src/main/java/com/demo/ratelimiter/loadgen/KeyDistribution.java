@@ -0,0 +1,13 @@
+package com.demo.ratelimiter.loadgen;
+
+/**
+ * Supplies the token used for each generated request.
+ * Implementations are only ever called from the single scheduling thread, so they do not need to be thread-safe.
+ */
+public interface KeyDistribution {
+
+    /**
+     * @return The token to use for the next request.
+     */
+    String nextToken();
+}
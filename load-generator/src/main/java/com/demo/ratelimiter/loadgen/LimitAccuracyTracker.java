@@ -0,0 +1,82 @@
+package com.demo.ratelimiter.loadgen;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares what the service admitted against what a perfect fixed window limiter would have admitted.
+ * Requests are grouped by token and by window, with windows aligned the same way the service aligns them
+ * (multiples of the interval since the epoch). For each group the ideal limiter admits {@code min(sent, calls)}.
+ * Requests sent close to a window boundary may be counted in a different window than the service used,
+ * so small deviations are expected at high rates.
+ */
+public class LimitAccuracyTracker {
+
+    private final long intervalMillis;
+    private final ConcurrentHashMap<WindowedToken, Counts> counts = new ConcurrentHashMap<>();
+
+    public LimitAccuracyTracker(long intervalSeconds) {
+        this.intervalMillis = intervalSeconds * 1000;
+    }
+
+    /**
+     * Records the outcome of one request.
+     *
+     * @param token          The token the request was made for.
+     * @param sentAtMillis   Wall clock time at which the request was sent.
+     * @param admitted       true if the service did not rate limit the request.
+     */
+    public void record(String token, long sentAtMillis, boolean admitted) {
+        long windowStart = (sentAtMillis / intervalMillis) * intervalMillis;
+        Counts windowCounts = counts.computeIfAbsent(new WindowedToken(token, windowStart), k -> new Counts());
+        windowCounts.sent.incrementAndGet();
+        if (admitted) {
+            windowCounts.admitted.incrementAndGet();
+        }
+    }
+
+    /**
+     * Summarizes all recorded requests against the given limit.
+     *
+     * @param calls Allowed calls per window.
+     * @return The accuracy summary.
+     */
+    public AccuracySummary summarize(int calls) {
+        long sent = 0;
+        long admitted = 0;
+        long expected = 0;
+        long overAdmitted = 0;
+        long underAdmitted = 0;
+        for (Counts windowCounts : counts.values()) {
+            long windowSent = windowCounts.sent.get();
+            long windowAdmitted = windowCounts.admitted.get();
+            long windowExpected = Math.min(windowSent, calls);
+            sent += windowSent;
+            admitted += windowAdmitted;
+            expected += windowExpected;
+            overAdmitted += Math.max(0, windowAdmitted - windowExpected);
+            underAdmitted += Math.max(0, windowExpected - windowAdmitted);
+        }
+        return new AccuracySummary(counts.size(), sent, admitted, expected, overAdmitted, underAdmitted);
+    }
+
+    private record WindowedToken(String token, long windowStart) {
+    }
+
+    private static final class Counts {
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong admitted = new AtomicLong();
+    }
+
+    /**
+     * @param windows       Number of distinct (token, window) pairs seen.
+     * @param sent          Requests that received a response.
+     * @param admitted      Requests the service did not rate limit.
+     * @param expected      Requests an exact fixed window limiter would have admitted.
+     * @param overAdmitted  Admitted requests beyond the limit, summed over all windows.
+     * @param underAdmitted Requests rejected although the window still had capacity, summed over all windows.
+     */
+    public record AccuracySummary(long windows, long sent, long admitted, long expected,
+                                  long overAdmitted, long underAdmitted) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.demo.ratelimiter.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a running rate limiter service at a fixed, open-loop arrival rate and reports latency percentiles,
+ * throughput and how accurately the service enforced its limit.
+ * <p>
+ * Each request is sent at its scheduled time whether or not earlier requests have completed, and its latency
+ * is measured from that scheduled time. A stalled service therefore shows up as high latency instead of
+ * silently lowering the offered load (coordinated omission).
+ */
+public class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final LoadGeneratorOptions options;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Latency in microseconds, measured from the intended send time. Dropped requests count as timed out.
+    private final Histogram latency = new ConcurrentHistogram(3);
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private long scheduled;
+    private long dropped;
+
+    public LoadGenerator(LoadGeneratorOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGeneratorOptions options = LoadGeneratorOptions.parse(args);
+        new LoadGenerator(options).run();
+    }
+
+    /**
+     * Configures the service if requested, runs the schedule and prints the report.
+     */
+    public void run() throws IOException, InterruptedException {
+        if (options.calls != null) {
+            configure(options.calls, options.interval);
+        }
+        JsonNode config = fetchConfig();
+        int calls = config.get("calls").asInt();
+        long interval = config.get("interval").asLong();
+        System.out.printf("Service limit: %d calls per %d seconds%n", calls, interval);
+
+        RequestSchedule schedule = createSchedule();
+        LimitAccuracyTracker accuracy = new LimitAccuracyTracker(interval);
+
+        long start = System.nanoTime();
+        while (schedule.hasNext()) {
+            ScheduledRequest request = schedule.next();
+            long intendedNanos = start + request.offsetNanos();
+            waitUntil(intendedNanos);
+            scheduled++;
+            if (inFlight.get() >= options.maxInFlight) {
+                // The client itself is saturated; count it rather than blocking and skewing the schedule.
+                // It is recorded as a timeout, so a stalled service cannot make the percentiles look healthier.
+                dropped++;
+                latency.recordValue(REQUEST_TIMEOUT.toNanos() / 1000);
+                continue;
+            }
+            send(request.token(), intendedNanos, accuracy);
+        }
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        printReport(elapsedNanos, accuracy.summarize(calls));
+    }
+
+    private RequestSchedule createSchedule() throws IOException {
+        if (options.trace != null) {
+            TraceSchedule trace = TraceSchedule.load(options.trace, options.rate);
+            System.out.printf("Replaying %d requests from %s%n", trace.size(), options.trace);
+            return trace;
+        }
+        SplittableRandom random = new SplittableRandom(options.seed);
+        KeyDistribution keys = switch (options.distribution) {
+            case "uniform" -> new UniformKeyDistribution(options.tokenPrefix, options.tokens, random);
+            case "zipf" -> new ZipfKeyDistribution(options.tokenPrefix, options.tokens, options.zipfExponent, random);
+            default -> throw new IllegalArgumentException("Unknown distribution " + options.distribution);
+        };
+        if (options.churn > 0) {
+            keys = new ChurnKeyDistribution(keys, options.churn, options.tokenPrefix, random);
+        }
+        System.out.printf("Sending %.0f requests/s for %d seconds, %s distribution over %d tokens, churn %.2f%n",
+                options.rate, options.durationSeconds, options.distribution, options.tokens, options.churn);
+        return new FixedRateSchedule(options.rate, options.durationSeconds, keys);
+    }
+
+    private void send(String token, long intendedNanos, LimitAccuracyTracker accuracy) {
+        String encodedToken = URLEncoder.encode(token, StandardCharsets.UTF_8).replace("+", "%20");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl + "/is_rate_limited/" + encodedToken))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        long sentAtMillis = System.currentTimeMillis();
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos));
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else {
+                        // The endpoint answers "true" when the request is rate limited.
+                        boolean requestAdmitted = !Boolean.parseBoolean(response.body().trim());
+                        if (requestAdmitted) {
+                            admitted.incrementAndGet();
+                        }
+                        accuracy.record(token, sentAtMillis, requestAdmitted);
+                    }
+                    completed.incrementAndGet();
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private void configure(int calls, long interval) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                .put("calls", calls)
+                .put("interval", interval));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl + "/configure"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Configuring the service failed with status " + response.statusCode()
+                    + ": " + response.body());
+        }
+    }
+
+    private JsonNode fetchConfig() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl + "/config"))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Fetching the service configuration failed with status "
+                    + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void printReport(long elapsedNanos, LimitAccuracyTracker.AccuracySummary accuracy) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        System.out.println();
+        System.out.println("=== Load ===");
+        System.out.printf("Scheduled: %d, completed: %d, errors: %d, dropped by client: %d, still in flight: %d%n",
+                scheduled, completed.get(), errors.get(), dropped, inFlight.get());
+        System.out.printf("Throughput: %.1f requests/s offered, %.1f responses/s, %.1f admitted/s%n",
+                scheduled / elapsedSeconds, completed.get() / elapsedSeconds, admitted.get() / elapsedSeconds);
+
+        System.out.println();
+        System.out.println("=== Latency (ms, from intended send time) ===");
+        if (dropped > 0) {
+            System.out.printf("Includes %d requests dropped by the client, recorded at the %d ms timeout%n",
+                    dropped, REQUEST_TIMEOUT.toMillis());
+        }
+        if (latency.getTotalCount() == 0) {
+            System.out.println("No responses recorded");
+        } else {
+            for (double percentile : new double[]{50, 90, 99, 99.9, 99.99}) {
+                System.out.printf("p%-6s %10.3f%n", percentile, latency.getValueAtPercentile(percentile) / 1000.0);
+            }
+            System.out.printf("max     %10.3f%n", latency.getMaxValue() / 1000.0);
+        }
+
+        System.out.println();
+        System.out.println("=== Limiting accuracy ===");
+        System.out.printf("Token windows: %d, responses: %d%n", accuracy.windows(), accuracy.sent());
+        System.out.printf("Admitted: %d, theoretical admitted: %d%n", accuracy.admitted(), accuracy.expected());
+        System.out.printf("Over-admitted: %d, under-admitted: %d%n", accuracy.overAdmitted(), accuracy.underAdmitted());
+        if (accuracy.expected() > 0) {
+            double error = 100.0 * (accuracy.overAdmitted() + accuracy.underAdmitted()) / accuracy.expected();
+            System.out.printf("Deviation from ideal limiter: %.3f%%%n", error);
+        }
+    }
+}
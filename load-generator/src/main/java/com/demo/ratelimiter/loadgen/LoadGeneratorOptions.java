@@ -0,0 +1,61 @@
+package com.demo.ratelimiter.loadgen;
+
+import java.nio.file.Path;
+
+/**
+ * Command line options of the load generator. Every option is given as {@code --name value}.
+ */
+public class LoadGeneratorOptions {
+
+    String baseUrl = "http://localhost:8082/api/v1/rate-limit";
+    double rate = 200; // Requests per second, fixed arrival rate
+    long durationSeconds = 30;
+    int tokens = 100; // Size of the token population
+    String distribution = "uniform"; // uniform or zipf
+    double zipfExponent = 1.1;
+    double churn = 0.0; // Share of requests that use a never seen token
+    String tokenPrefix = "loadgen-";
+    Path trace; // Optional JSON lines trace to replay instead of the synthetic schedule
+    Integer calls; // Optional: configure the service with these calls before the run
+    Long interval; // Optional: configure the service with this interval (seconds) before the run
+    int maxInFlight = 10_000;
+    long seed = 42;
+
+    /**
+     * Parses command line arguments.
+     *
+     * @param args The arguments, as pairs of {@code --name value}.
+     * @return The parsed options.
+     * @throws IllegalArgumentException if an option is unknown or is missing its value.
+     */
+    public static LoadGeneratorOptions parse(String[] args) {
+        LoadGeneratorOptions options = new LoadGeneratorOptions();
+        for (int i = 0; i < args.length; i += 2) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for option " + name);
+            }
+            String value = args[i + 1];
+            switch (name) {
+                case "--base-url" -> options.baseUrl = value;
+                case "--rate" -> options.rate = Double.parseDouble(value);
+                case "--duration" -> options.durationSeconds = Long.parseLong(value);
+                case "--tokens" -> options.tokens = Integer.parseInt(value);
+                case "--distribution" -> options.distribution = value;
+                case "--zipf-exponent" -> options.zipfExponent = Double.parseDouble(value);
+                case "--churn" -> options.churn = Double.parseDouble(value);
+                case "--token-prefix" -> options.tokenPrefix = value;
+                case "--trace" -> options.trace = Path.of(value);
+                case "--calls" -> options.calls = Integer.parseInt(value);
+                case "--interval" -> options.interval = Long.parseLong(value);
+                case "--max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "--seed" -> options.seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if ((options.calls == null) != (options.interval == null)) {
+            throw new IllegalArgumentException("--calls and --interval must be given together");
+        }
+        return options;
+    }
+}
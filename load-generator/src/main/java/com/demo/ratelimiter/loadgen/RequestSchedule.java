@@ -0,0 +1,10 @@
+package com.demo.ratelimiter.loadgen;
+
+import java.util.Iterator;
+
+/**
+ * Ordered sequence of requests to send. Offsets must be non-decreasing, since the generator sends
+ * each request at its intended time and never waits for earlier responses.
+ */
+public interface RequestSchedule extends Iterator<ScheduledRequest> {
+}
@@ -0,0 +1,10 @@
+package com.demo.ratelimiter.loadgen;
+
+/**
+ * A single request of a schedule.
+ *
+ * @param offsetNanos Intended send time, relative to the start of the run.
+ * @param token       The token the request is made for.
+ */
+public record ScheduledRequest(long offsetNanos, String token) {
+}
@@ -0,0 +1,91 @@
+package com.demo.ratelimiter.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded trace in JSON lines format, one request per line:
+ * <pre>
+ * {"offsetMillis": 0, "token": "client-a"}
+ * {"offsetMillis": 12, "token": "client-b"}
+ * </pre>
+ * Lines without {@code offsetMillis} are spaced at the fallback rate after the previous request.
+ * Blank lines are ignored, so an empty file is a valid (empty) trace.
+ */
+public class TraceSchedule implements RequestSchedule {
+
+    private final List<ScheduledRequest> requests;
+    private int position;
+
+    TraceSchedule(List<ScheduledRequest> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Reads a trace file fully into memory.
+     *
+     * @param path                      The JSON lines file to read.
+     * @param fallbackRequestsPerSecond Rate used for lines that carry no offset.
+     * @return The schedule, sorted by offset.
+     * @throws IOException if the file cannot be read or a line is not a valid trace entry.
+     */
+    public static TraceSchedule load(Path path, double fallbackRequestsPerSecond) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        long fallbackIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / fallbackRequestsPerSecond);
+        List<ScheduledRequest> requests = new ArrayList<>();
+        long lastOffset = -fallbackIntervalNanos;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                JsonNode token = node.get("token");
+                if (token == null || !token.isTextual()) {
+                    throw new IOException("Missing \"token\" on line " + lineNumber + " of " + path);
+                }
+                JsonNode offsetMillis = node.get("offsetMillis");
+                long offset = offsetMillis != null
+                        ? TimeUnit.MILLISECONDS.toNanos(offsetMillis.asLong())
+                        : lastOffset + fallbackIntervalNanos;
+                requests.add(new ScheduledRequest(offset, token.asText()));
+                lastOffset = offset;
+            }
+        }
+        requests.sort((a, b) -> Long.compare(a.offsetNanos(), b.offsetNanos()));
+        return new TraceSchedule(requests);
+    }
+
+    /**
+     * @return Number of requests in the trace.
+     */
+    public int size() {
+        return requests.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < requests.size();
+    }
+
+    @Override
+    public ScheduledRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return requests.get(position++);
+    }
+}
@@ -0,0 +1,28 @@
+package com.demo.ratelimiter.loadgen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks every token out of a fixed set of {@code tokenCount} tokens with equal probability.
+ */
+public class UniformKeyDistribution implements KeyDistribution {
+
+    private final String[] tokens;
+    private final SplittableRandom random;
+
+    public UniformKeyDistribution(String tokenPrefix, int tokenCount, SplittableRandom random) {
+        if (tokenCount < 1) {
+            throw new IllegalArgumentException("tokenCount must be at least 1");
+        }
+        this.tokens = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            tokens[i] = tokenPrefix + i;
+        }
+        this.random = random;
+    }
+
+    @Override
+    public String nextToken() {
+        return tokens[random.nextInt(tokens.length)];
+    }
+}
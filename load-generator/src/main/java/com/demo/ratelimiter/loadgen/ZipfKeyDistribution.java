@@ -0,0 +1,46 @@
+package com.demo.ratelimiter.loadgen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Picks tokens following a Zipf distribution, so that a few hot tokens receive most of the traffic
+ * the way real API keys do. Token {@code i} (zero based) is chosen with probability proportional to {@code 1 / (i + 1)^s}.
+ */
+public class ZipfKeyDistribution implements KeyDistribution {
+
+    private final String[] tokens;
+    // Cumulative probabilities, used to map a uniform random number to a rank with a binary search.
+    private final double[] cumulative;
+    private final SplittableRandom random;
+
+    public ZipfKeyDistribution(String tokenPrefix, int tokenCount, double exponent, SplittableRandom random) {
+        if (tokenCount < 1) {
+            throw new IllegalArgumentException("tokenCount must be at least 1");
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("exponent must be positive");
+        }
+        this.tokens = new String[tokenCount];
+        this.cumulative = new double[tokenCount];
+        double sum = 0;
+        for (int i = 0; i < tokenCount; i++) {
+            tokens[i] = tokenPrefix + i;
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < tokenCount; i++) {
+            cumulative[i] /= sum;
+        }
+        this.random = random;
+    }
+
+    @Override
+    public String nextToken() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return tokens[Math.min(index, tokens.length - 1)];
+    }
+}
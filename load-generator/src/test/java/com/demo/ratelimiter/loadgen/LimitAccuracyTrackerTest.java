@@ -0,0 +1,38 @@
+package com.demo.ratelimiter.loadgen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LimitAccuracyTrackerTest {
+
+    @Test
+    @DisplayName("Test admitted counts are compared per token and per window")
+    public void testSummarize() {
+        // Arrange - 10 second windows, limit of 2 calls
+        LimitAccuracyTracker tracker = new LimitAccuracyTracker(10);
+
+        // token-a, first window: 4 sent, 3 admitted (one too many)
+        tracker.record("token-a", 1_000, true);
+        tracker.record("token-a", 2_000, true);
+        tracker.record("token-a", 3_000, true);
+        tracker.record("token-a", 4_000, false);
+        // token-a, second window: 1 sent, rejected (one too few)
+        tracker.record("token-a", 11_000, false);
+        // token-b, first window: 2 sent, 2 admitted
+        tracker.record("token-b", 5_000, true);
+        tracker.record("token-b", 6_000, true);
+
+        // Act
+        LimitAccuracyTracker.AccuracySummary summary = tracker.summarize(2);
+
+        // Assert
+        assertEquals(3, summary.windows(), "Three distinct token windows should be tracked.");
+        assertEquals(7, summary.sent());
+        assertEquals(5, summary.admitted());
+        assertEquals(5, summary.expected(), "Ideal limiter admits min(sent, calls) per window.");
+        assertEquals(1, summary.overAdmitted());
+        assertEquals(1, summary.underAdmitted());
+    }
+}
@@ -0,0 +1,88 @@
+package com.demo.ratelimiter.loadgen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestScheduleTest {
+
+    @Test
+    @DisplayName("Test fixed rate schedule spaces requests evenly")
+    public void testFixedRateSchedule() {
+        // Arrange
+        KeyDistribution keys = new UniformKeyDistribution("t", 5, new SplittableRandom(1));
+        FixedRateSchedule schedule = new FixedRateSchedule(100, 2, keys);
+
+        // Act
+        long count = 0;
+        long lastOffset = 0;
+        while (schedule.hasNext()) {
+            lastOffset = schedule.next().offsetNanos();
+            count++;
+        }
+
+        // Assert
+        assertEquals(200, count, "100 requests/s for 2 seconds should schedule 200 requests.");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1990), lastOffset, "The last request should be due 10ms before the end.");
+    }
+
+    @Test
+    @DisplayName("Test Zipf distribution favours the lowest ranked tokens")
+    public void testZipfDistribution() {
+        // Arrange
+        ZipfKeyDistribution keys = new ZipfKeyDistribution("t", 100, 1.2, new SplittableRandom(7));
+        Map<String, Integer> hits = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            hits.merge(keys.nextToken(), 1, Integer::sum);
+        }
+
+        // Assert
+        assertTrue(hits.get("t0") > hits.getOrDefault("t1", 0), "Rank 0 should be hotter than rank 1.");
+        assertTrue(hits.get("t0") > 100_000 / 10, "Rank 0 should receive a large share of the traffic.");
+    }
+
+    @Test
+    @DisplayName("Test churn distribution produces unseen tokens")
+    public void testChurnDistribution() {
+        // Arrange
+        KeyDistribution base = new UniformKeyDistribution("t", 1, new SplittableRandom(3));
+        ChurnKeyDistribution keys = new ChurnKeyDistribution(base, 1.0, "t", new SplittableRandom(3));
+
+        // Act and Assert
+        assertEquals("tchurn-0", keys.nextToken());
+        assertEquals("tchurn-1", keys.nextToken());
+    }
+
+    @Test
+    @DisplayName("Test trace replay, including an empty trace file")
+    public void testTraceSchedule(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path empty = Files.createFile(directory.resolve("empty.jsonl"));
+        Path trace = Files.writeString(directory.resolve("trace.jsonl"),
+                "{\"offsetMillis\": 20, \"token\": \"b\"}\n\n{\"offsetMillis\": 5, \"token\": \"a\"}\n{\"token\": \"c\"}\n");
+
+        // Act
+        TraceSchedule emptySchedule = TraceSchedule.load(empty, 100);
+        TraceSchedule schedule = TraceSchedule.load(trace, 100);
+
+        // Assert
+        assertFalse(emptySchedule.hasNext(), "An empty trace should produce no requests.");
+        assertEquals(3, schedule.size());
+        assertEquals(new ScheduledRequest(TimeUnit.MILLISECONDS.toNanos(5), "a"), schedule.next());
+        assertEquals(new ScheduledRequest(TimeUnit.MILLISECONDS.toNanos(15), "c"), schedule.next(),
+                "A line without offset should follow the previous line at the fallback rate.");
+        assertEquals(new ScheduledRequest(TimeUnit.MILLISECONDS.toNanos(20), "b"), schedule.next());
+    }
+}
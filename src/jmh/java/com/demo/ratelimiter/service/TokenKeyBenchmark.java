@@ -0,0 +1,111 @@
+package com.demo.ratelimiter.service;
+
+import com.demo.ratelimiter.config.RateLimitConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the per-request cost and the per-token memory of the hashed {@link com.demo.ratelimiter.key.TokenKey}
+ * counters against the previous layout, which kept two maps keyed by the full token string.
+ * Every request builds a fresh token string, like the {@code @PathVariable} binding does.
+ * The retained size per token is printed after each trial.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenKeyBenchmark {
+
+    // Short API keys up to JWT-subject sized tokens.
+    @Param({"16", "64", "512"})
+    public int tokenLength;
+
+    @Param({"100000"})
+    public int tokenCount;
+
+    private char[][] tokens;
+    private RateLimitService rateLimitService;
+    private LegacyRateLimiter legacyRateLimiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokens = new char[tokenCount][];
+        for (int i = 0; i < tokenCount; i++) {
+            char[] token = new char[tokenLength];
+            for (int j = 0; j < tokenLength; j++) {
+                token[j] = (char) ('a' + ThreadLocalRandom.current().nextInt(26));
+            }
+            tokens[i] = token;
+        }
+        // A high limit keeps both implementations on the admitting path.
+        rateLimitService = new RateLimitService(new RateLimitConfig(Integer.MAX_VALUE, 3600));
+        legacyRateLimiter = new LegacyRateLimiter(Integer.MAX_VALUE, 3600);
+        for (char[] token : tokens) {
+            rateLimitService.isRateLimited(new String(token));
+            legacyRateLimiter.isRateLimited(new String(token));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void printFootprint() {
+        long hashed = GraphLayout.parseInstance(rateLimitService).totalSize();
+        long legacy = GraphLayout.parseInstance(legacyRateLimiter).totalSize();
+        System.out.printf("%nRetained bytes per token (length %d): hashed keys %d, string keys %d%n",
+                tokenLength, hashed / tokenCount, legacy / tokenCount);
+    }
+
+    @Benchmark
+    public boolean hashedKeys() {
+        return rateLimitService.isRateLimited(new String(nextToken()));
+    }
+
+    @Benchmark
+    public boolean stringKeys() {
+        return legacyRateLimiter.isRateLimited(new String(nextToken()));
+    }
+
+    private char[] nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokenCount)];
+    }
+
+    /**
+     * The string keyed counter layout used before token keys were hashed, kept here as the baseline.
+     */
+    static final class LegacyRateLimiter {
+
+        private final int calls;
+        private final long intervalInMillis;
+        private final ConcurrentHashMap<String, Object> tokenLocks = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, ConcurrentHashMap<Long, AtomicInteger>> tokenAccessMap =
+                new ConcurrentHashMap<>();
+
+        LegacyRateLimiter(int calls, long intervalSeconds) {
+            this.calls = calls;
+            this.intervalInMillis = intervalSeconds * 1000;
+        }
+
+        boolean isRateLimited(String token) {
+            tokenLocks.computeIfAbsent(token, k -> new Object());
+            synchronized (tokenLocks.get(token)) {
+                long currentWindowKey = (System.currentTimeMillis() / intervalInMillis) * intervalInMillis;
+                ConcurrentHashMap<Long, AtomicInteger> windows =
+                        tokenAccessMap.computeIfAbsent(token, k -> new ConcurrentHashMap<>());
+                AtomicInteger currentCount = windows.computeIfAbsent(currentWindowKey, k -> new AtomicInteger(0));
+                if (currentCount.incrementAndGet() > calls) {
+                    return true;
+                }
+                windows.keySet().removeIf(windowKey -> windowKey < currentWindowKey);
+                return false;
+            }
+        }
+    }
+}
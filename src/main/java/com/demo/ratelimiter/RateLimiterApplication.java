@@ -1,6 +1,8 @@
 package com.demo.ratelimiter;
 
 import com.demo.ratelimiter.config.RateLimitConfig;
+import com.demo.ratelimiter.config.ShapingConfig;
+import com.demo.ratelimiter.config.TokenKeyConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -10,7 +12,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
  * It enables configuration properties and starts the Spring Boot application.
  */
 @SpringBootApplication
-@EnableConfigurationProperties({RateLimitConfig.class})
+@EnableConfigurationProperties({RateLimitConfig.class, ShapingConfig.class, TokenKeyConfig.class})
 public class RateLimiterApplication {
     public static void main(String[] args) {
         SpringApplication.run(RateLimiterApplication.class, args);
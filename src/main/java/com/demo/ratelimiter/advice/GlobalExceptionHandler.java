@@ -1,14 +1,18 @@
 package com.demo.ratelimiter.advice;
 
+import com.demo.ratelimiter.exception.AdminOperationUnavailableException;
+import com.demo.ratelimiter.exception.InvalidAdminRequestException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -44,6 +48,71 @@ public class GlobalExceptionHandler {
         return errors;
     }
 
+    /**
+     * Handles request parameters that cannot be converted, such as an unknown priority class.
+     *
+     * @param ex The conversion exception.
+     * @return Map with the parameter name and an error message.
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public Map<String, String> handleTypeMismatchExceptions(MethodArgumentTypeMismatchException ex) {
+        log.debug("Invalid value '{}' for parameter '{}'", ex.getValue(), ex.getName());
+        Map<String, String> errors = new HashMap<>();
+        errors.put(ex.getName(), "Invalid value: " + ex.getValue());
+        return errors;
+    }
+
+    /**
+     * Handles required request parameters that are missing, such as the prefix of a prefix reset.
+     *
+     * @param ex The exception naming the missing parameter.
+     * @return Map with the parameter name and an error message.
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public Map<String, String> handleMissingParameterExceptions(MissingServletRequestParameterException ex) {
+        log.debug("Missing parameter '{}'", ex.getParameterName());
+        Map<String, String> errors = new HashMap<>();
+        errors.put(ex.getParameterName(), "Required parameter is missing");
+        return errors;
+    }
+
+    /**
+     * Handles invalid arguments to admin queries, such as a top-K size out of range.
+     *
+     * @param ex The exception describing the invalid argument.
+     * @return Map with the error message.
+     */
+    @ExceptionHandler(InvalidAdminRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public Map<String, String> handleInvalidAdminRequestExceptions(InvalidAdminRequestException ex) {
+        log.debug("Invalid admin request: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        return response;
+    }
+
+    /**
+     * Handles admin operations that the current configuration does not allow,
+     * such as prefix operations when full tokens are not kept.
+     *
+     * @param ex The exception describing why the operation is not possible.
+     * @return Map with the error message.
+     */
+    @ExceptionHandler(AdminOperationUnavailableException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public Map<String, String> handleAdminOperationUnavailableExceptions(AdminOperationUnavailableException ex) {
+        log.debug("Admin operation not possible: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        return response;
+    }
+
 
     /**
      * Catches and handles unexpected exceptions, providing a generic error response.
@@ -0,0 +1,16 @@
+package com.demo.ratelimiter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configures traffic shaping: whether requests over the limit may wait for the next window instead of being rejected,
+ * how many requests may wait per token and for how long.
+ */
+@ConfigurationProperties(prefix = "ratelimit.shaping")
+@Data
+public class ShapingConfig {
+    private boolean enabled = false; // Rejects immediately when disabled
+    private int maxQueueSize = 100; // Waiting requests allowed per token
+    private long maxWaitMillis = 5000; // Longest time a request may wait for its slot
+}
@@ -0,0 +1,19 @@
+package com.demo.ratelimiter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configures how tokens are normalized before they are hashed into counter keys,
+ * and whether full tokens are kept to verify hash collisions.
+ */
+@ConfigurationProperties(prefix = "ratelimit.keys")
+@Data
+public class TokenKeyConfig {
+    private boolean caseSensitive = true; // Treats "ABC" and "abc" as different tokens when true
+    private List<String> stripPrefixes = new ArrayList<>(); // Prefixes removed from tokens, first match wins
+    private boolean verifyCollisions = false; // Keeps full tokens so that colliding hashes stay separate
+}
@@ -0,0 +1,112 @@
+package com.demo.ratelimiter.controller;
+
+
+import com.demo.ratelimiter.controller.dto.TokenLimitUpdateRequest;
+import com.demo.ratelimiter.controller.dto.TokenUsagePageResponse;
+import com.demo.ratelimiter.controller.dto.TokenUsageResponse;
+import com.demo.ratelimiter.service.RateLimitAdminService;
+import com.demo.ratelimiter.service.UsageMetric;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RateLimitAdminController handles RESTful admin interactions with the live rate limiting counters.
+ * It provides endpoints for inspecting tokens, listing top tokens and resetting or raising limits of tokens or token prefixes.
+ * Acts as a bridge to RateLimitAdminService.
+ */
+@RestController
+@RequestMapping(RateLimitAdminController.ADMIN_PATH)
+public class RateLimitAdminController {
+
+    public static final String ADMIN_PATH = RateLimitController.BASE_PATH + "/admin";
+    private static final Logger log = LoggerFactory.getLogger(RateLimitAdminController.class);
+    private final RateLimitAdminService rateLimitAdminService;
+
+    @Autowired
+    public RateLimitAdminController(RateLimitAdminService rateLimitAdminService) {
+        this.rateLimitAdminService = rateLimitAdminService;
+    }
+
+    @Operation(summary = "Inspect a token",
+            description = "Gets the current window usage, totals and limit of a single token.")
+    @GetMapping("/tokens/{token}")
+    public ResponseEntity<TokenUsageResponse> getToken(@PathVariable String token) {
+        log.debug("Retrieving usage for token: {}", token);
+        return ResponseEntity.of(rateLimitAdminService.getTokenUsage(token));
+    }
+
+    @Operation(summary = "List tracked tokens",
+            description = "Lists tracked tokens page by page, in hash order. "
+                    + "Pass the returned nextCursor to get the following page.")
+    @GetMapping("/tokens")
+    public TokenUsagePageResponse listTokens(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "50") int limit) {
+        log.debug("Listing tokens from cursor: {} with limit: {}", cursor, limit);
+        return rateLimitAdminService.listTokens(cursor, limit);
+    }
+
+    @Operation(summary = "List top tokens",
+            description = "Lists the tokens with the most admitted (USAGE) or rate limited (REJECTIONS) requests.")
+    @GetMapping("/top")
+    public List<TokenUsageResponse> getTopTokens(@RequestParam(defaultValue = "USAGE") UsageMetric by,
+                                                 @RequestParam(defaultValue = "10") int k) {
+        log.debug("Retrieving top {} tokens by {}", k, by);
+        return rateLimitAdminService.getTopTokens(by, k);
+    }
+
+    @Operation(summary = "Reset a token",
+            description = "Clears the current window count and totals of a single token.")
+    @DeleteMapping("/tokens/{token}")
+    public ResponseEntity<Void> resetToken(@PathVariable String token) {
+        log.info("Resetting token: {}", token);
+        return rateLimitAdminService.resetToken(token)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @Operation(summary = "Reset tokens by prefix",
+            description = "Clears the counts of every tracked token starting with the prefix. Needs full tokens to be kept.")
+    @DeleteMapping("/tokens")
+    public Map<String, Integer> resetTokensByPrefix(@RequestParam String prefix) {
+        log.info("Resetting tokens with prefix: {}", prefix);
+        return Map.of("reset", rateLimitAdminService.resetTokensByPrefix(prefix));
+    }
+
+    @Operation(summary = "Set a token's limit",
+            description = "Replaces the configured calls per interval for a single token.")
+    @PutMapping("/tokens/{token}/limit")
+    public ResponseEntity<?> setTokenLimit(@PathVariable String token,
+                                           @Valid @RequestBody TokenLimitUpdateRequest limitRequest) {
+        log.info("Setting limit for token: {} to calls={}", token, limitRequest.getCalls());
+        rateLimitAdminService.setTokenLimit(token, limitRequest.getCalls());
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "Set the limit of tokens by prefix",
+            description = "Replaces the configured calls per interval for every tracked token starting with the prefix. "
+                    + "Needs full tokens to be kept.")
+    @PutMapping("/tokens/limit")
+    public Map<String, Integer> setTokenLimitByPrefix(@RequestParam String prefix,
+                                                      @Valid @RequestBody TokenLimitUpdateRequest limitRequest) {
+        log.info("Setting limit for tokens with prefix: {} to calls={}", prefix, limitRequest.getCalls());
+        return Map.of("updated", rateLimitAdminService.setTokenLimitByPrefix(prefix, limitRequest.getCalls()));
+    }
+
+    @Operation(summary = "Remove a token's limit",
+            description = "Makes the configured calls per interval apply to the token again.")
+    @DeleteMapping("/tokens/{token}/limit")
+    public ResponseEntity<Void> clearTokenLimit(@PathVariable String token) {
+        log.info("Removing limit for token: {}", token);
+        return rateLimitAdminService.clearTokenLimit(token)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -2,9 +2,12 @@ package com.demo.ratelimiter.controller;
 
 
 import com.demo.ratelimiter.config.RateLimitConfig;
+import com.demo.ratelimiter.config.ShapingConfig;
 import com.demo.ratelimiter.controller.dto.RateLimitConfigResponse;
 import com.demo.ratelimiter.controller.dto.RateLimitConfigUpdateRequest;
+import com.demo.ratelimiter.service.Priority;
 import com.demo.ratelimiter.service.RateLimitService;
+import com.demo.ratelimiter.service.RateLimitShaper;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -12,6 +15,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * RateLimitController handles RESTful interactions for rate limiting.
@@ -23,12 +29,19 @@ import org.springframework.web.bind.annotation.*;
 public class RateLimitController {
 
     public static final String BASE_PATH = "/api/v1/rate-limit";
+    // Time a shaped request is given on top of its maximum wait before the async request times out.
+    static final long ACQUIRE_TIMEOUT_MARGIN_MILLIS = 1000;
     private static final Logger log = LoggerFactory.getLogger(RateLimitController.class);
     private final RateLimitService rateLimiterService;
+    private final RateLimitShaper rateLimitShaper;
+    private final ShapingConfig shapingConfig;
 
     @Autowired
-    public RateLimitController(RateLimitService rateLimiterService) {
+    public RateLimitController(RateLimitService rateLimiterService, RateLimitShaper rateLimitShaper,
+                               ShapingConfig shapingConfig) {
         this.rateLimiterService = rateLimiterService;
+        this.rateLimitShaper = rateLimitShaper;
+        this.shapingConfig = shapingConfig;
     }
 
     @Operation(summary = "Configure rate limit settings",
@@ -50,6 +63,32 @@ public class RateLimitController {
         return isRateLimitedResult;
     }
 
+    @Operation(summary = "Acquire a slot for a token, waiting if needed",
+            description = "Like is_rate_limited, but when shaping is enabled a request over the limit waits for the next window "
+                    + "instead of being rejected. Interactive requests are served ahead of batch requests.")
+    @GetMapping("/acquire/{token}")
+    public DeferredResult<Boolean> acquire(@PathVariable String token,
+                                           @RequestParam(defaultValue = "INTERACTIVE") Priority priority) {
+        log.debug("Shaped rate limit check started for token: {} with priority: {}", token, priority);
+        // The request times out shortly after its longest possible wait instead of at the container's async timeout,
+        // and is then answered as rate limited.
+        DeferredResult<Boolean> deferredResult =
+                new DeferredResult<>(shapingConfig.getMaxWaitMillis() + ACQUIRE_TIMEOUT_MARGIN_MILLIS, true);
+        CompletableFuture<Boolean> admission = rateLimitShaper.acquire(token, priority);
+        // Completing or cancelling the admission takes a still waiting request out of its queue.
+        deferredResult.onTimeout(() -> admission.complete(true));
+        deferredResult.onCompletion(() -> admission.cancel(false));
+        admission.whenComplete((result, ex) -> {
+            log.debug("Shaped rate limit check result for token: {} - {}", token, result);
+            if (null != ex) {
+                deferredResult.setErrorResult(ex);
+            } else {
+                deferredResult.setResult(result);
+            }
+        });
+        return deferredResult;
+    }
+
     @Operation(summary = "Retrieve current rate limit configuration",
             description = "Gets the current configuration settings for rate limiting.")
     @GetMapping("/config")
@@ -0,0 +1,21 @@
+package com.demo.ratelimiter.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request payload for a per-token limit that replaces the configured calls per interval.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenLimitUpdateRequest {
+    @Min(1) // Enforces the minimum value of 1 for calls
+    @Max(1000000) // Enforces the maximum value of 1000000 for calls
+    @Schema(description = "Number of calls allowed per interval for the token. Value must be between 1 and 1000000.", example = "500")
+    private int calls;
+}
@@ -0,0 +1,16 @@
+package com.demo.ratelimiter.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of tracked tokens, with the cursor to pass for the next page.
+ */
+@Data
+@AllArgsConstructor
+public class TokenUsagePageResponse {
+    private List<TokenUsageResponse> tokens;
+    private String nextCursor; // null when there are no more tokens
+}
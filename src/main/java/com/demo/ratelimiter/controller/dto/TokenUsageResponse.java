@@ -0,0 +1,17 @@
+package com.demo.ratelimiter.controller.dto;
+
+import lombok.Data;
+
+/**
+ * Represents the current usage of a single token, as seen by the admin API.
+ */
+@Data
+public class TokenUsageResponse {
+    private String token; // Normalized token, or its hash when full tokens are not kept
+    private int calls; // Limit that applies to the token per interval
+    private int currentWindowCount; // Requests admitted in the current window
+    private int remaining; // Requests still allowed in the current window
+    private long totalAdmitted; // Requests admitted since tracking started or the last reset
+    private long totalRejected; // Requests rate limited since tracking started or the last reset
+    private Integer limitOverride; // Per-token limit, null if the configured limit applies
+}
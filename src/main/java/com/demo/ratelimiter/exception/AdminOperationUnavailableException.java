@@ -0,0 +1,12 @@
+package com.demo.ratelimiter.exception;
+
+/**
+ * Thrown when an admin operation is not possible with the current configuration, such as prefix operations
+ * when full tokens are not kept. The message is returned to the client.
+ */
+public class AdminOperationUnavailableException extends IllegalStateException {
+
+    public AdminOperationUnavailableException(String message) {
+        super(message);
+    }
+}
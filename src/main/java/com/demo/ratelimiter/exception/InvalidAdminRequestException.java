@@ -0,0 +1,12 @@
+package com.demo.ratelimiter.exception;
+
+/**
+ * Thrown when an admin query has arguments out of range, such as a top-K size above the tracked capacity.
+ * The message is returned to the client.
+ */
+public class InvalidAdminRequestException extends IllegalArgumentException {
+
+    public InvalidAdminRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,96 @@
+package com.demo.ratelimiter.key;
+
+/**
+ * MurmurHash3 (x64, 128-bit variant) computed directly over the UTF-16 code units of a character sequence,
+ * so that hashing a token needs no intermediate byte array or normalized copy.
+ */
+final class Murmur3 {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final long SEED = 0x9747b28cL;
+
+    private Murmur3() {
+    }
+
+    /**
+     * Hashes a range of characters.
+     *
+     * @param chars     The characters to hash.
+     * @param from      Index of the first character to hash.
+     * @param to        Index after the last character to hash.
+     * @param lowerCase true to hash every character as if it were lower case.
+     * @return The first 64 bits of the 128-bit hash.
+     */
+    static long hash64(CharSequence chars, int from, int to, boolean lowerCase) {
+        long h1 = SEED;
+        long h2 = SEED;
+        int i = from;
+        // Each block of 16 bytes holds 8 characters.
+        for (; i + 8 <= to; i += 8) {
+            long k1 = pack(chars, i, 4, lowerCase);
+            long k2 = pack(chars, i + 4, 4, lowerCase);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int remaining = to - i;
+        if (remaining > 4) {
+            h2 ^= mixK2(pack(chars, i + 4, remaining - 4, lowerCase));
+        }
+        if (remaining > 0) {
+            h1 ^= mixK1(pack(chars, i, Math.min(remaining, 4), lowerCase));
+        }
+
+        long length = (to - from) * 2L;
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        return h1;
+    }
+
+    private static long pack(CharSequence chars, int index, int count, boolean lowerCase) {
+        long k = 0;
+        for (int j = 0; j < count; j++) {
+            char c = chars.charAt(index + j);
+            if (lowerCase) {
+                c = Character.toLowerCase(c);
+            }
+            k |= (long) c << (16 * j);
+        }
+        return k;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.ratelimiter.key;
+
+import java.util.Objects;
+
+/**
+ * Compact map key for a token: a 64-bit hash of the normalized token, plus the normalized token itself
+ * only when collision verification is enabled. Without verification two tokens with the same hash share their counters.
+ * Keys are ordered by their hash as an unsigned number, then by the full token, so that listings can resume
+ * from a hash.
+ */
+public final class TokenKey implements Comparable<TokenKey> {
+
+    private final long hash;
+    private final String fullKey; // Only set when collision verification is enabled
+
+    TokenKey(long hash, String fullKey) {
+        this.hash = hash;
+        this.fullKey = fullKey;
+    }
+
+    /**
+     * @param hash A 64-bit token hash.
+     * @return The first key with the given hash in key order, to start range queries from.
+     */
+    public static TokenKey first(long hash) {
+        return new TokenKey(hash, null);
+    }
+
+    /**
+     * @return The 64-bit hash of the normalized token.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return The normalized token, or null if full keys are not kept.
+     */
+    public String getFullKey() {
+        return fullKey;
+    }
+
+    @Override
+    public int compareTo(TokenKey other) {
+        int byHash = Long.compareUnsigned(hash, other.hash);
+        if (byHash != 0 || Objects.equals(fullKey, other.fullKey)) {
+            return byHash;
+        }
+        // A key without the full token comes first
+        if (null == fullKey) {
+            return -1;
+        }
+        return null == other.fullKey ? 1 : fullKey.compareTo(other.fullKey);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TokenKey other)) {
+            return false;
+        }
+        return hash == other.hash && Objects.equals(fullKey, other.fullKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return null != fullKey ? fullKey : String.format("#%016x", hash);
+    }
+}
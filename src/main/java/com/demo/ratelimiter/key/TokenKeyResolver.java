@@ -0,0 +1,77 @@
+package com.demo.ratelimiter.key;
+
+import com.demo.ratelimiter.config.TokenKeyConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns request tokens into {@link TokenKey}s. Normalization (prefix stripping and optional case folding)
+ * is applied while hashing, so the token is read exactly once and no normalized copy is created
+ * unless collision verification needs the full key.
+ */
+@Component
+public class TokenKeyResolver {
+
+    private final boolean caseSensitive;
+    private final String[] stripPrefixes;
+    private final boolean verifyCollisions;
+
+    /**
+     * Constructs a TokenKeyResolver with the given normalization rules.
+     * @param tokenKeyConfig Configuration parameters for token keys.
+     */
+    @Autowired
+    public TokenKeyResolver(TokenKeyConfig tokenKeyConfig) {
+        this.caseSensitive = tokenKeyConfig.isCaseSensitive();
+        this.stripPrefixes = tokenKeyConfig.getStripPrefixes().toArray(new String[0]);
+        this.verifyCollisions = tokenKeyConfig.isVerifyCollisions();
+    }
+
+    /**
+     * Normalizes and hashes a token.
+     * @param token The token as received in the request.
+     * @return The key identifying the token's counters.
+     */
+    public TokenKey resolve(String token) {
+        int start = prefixLength(token);
+        long hash = Murmur3.hash64(token, start, token.length(), !caseSensitive);
+        return new TokenKey(hash, verifyCollisions ? normalize(token, start) : null);
+    }
+
+    /**
+     * Applies the normalization rules to a token or token prefix, without hashing it.
+     * @param token The token or prefix as a client would send it.
+     * @return The normalized form, as kept in full keys.
+     */
+    public String normalize(String token) {
+        return normalize(token, prefixLength(token));
+    }
+
+    /**
+     * @return true if keys carry the full normalized token.
+     */
+    public boolean isVerifyCollisions() {
+        return verifyCollisions;
+    }
+
+    private int prefixLength(String token) {
+        for (String prefix : stripPrefixes) {
+            if (token.regionMatches(!caseSensitive, 0, prefix, 0, prefix.length())) {
+                return prefix.length();
+            }
+        }
+        return 0;
+    }
+
+    private String normalize(String token, int start) {
+        if (caseSensitive) {
+            return token.substring(start);
+        }
+        // Folds case per character, exactly like the hash does.
+        StringBuilder normalized = new StringBuilder(token.length() - start);
+        for (int i = start; i < token.length(); i++) {
+            normalized.append(Character.toLowerCase(token.charAt(i)));
+        }
+        return normalized.toString();
+    }
+}
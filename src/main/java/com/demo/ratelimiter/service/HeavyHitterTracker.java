@@ -0,0 +1,162 @@
+package com.demo.ratelimiter.service;
+
+import com.demo.ratelimiter.key.TokenKey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps the tokens with the highest score (for example total admitted requests) as candidates for top-K queries,
+ * updated incrementally from the admission path. A token only becomes a candidate once its score passes the floor,
+ * the lowest score still kept by the last trim, so most requests cost a single volatile read.
+ * When the candidates grow to twice the capacity, whichever thread notices first trims them back;
+ * other threads never wait for the trim. Since scores only drop through resets, the candidates are rebuilt
+ * from all counters after a reset, unless enough candidates are left to fill the top.
+ */
+final class HeavyHitterTracker {
+
+    private final int capacity;
+    private final ToLongFunction<TokenCounter> score;
+    private final ConcurrentHashMap<TokenKey, TokenCounter> candidates = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private volatile long floor;
+
+    /**
+     * @param capacity Number of tokens kept after a trim, the largest K that can be answered.
+     * @param score    Reads the score of a counter; scores only grow, except when counters are reset.
+     */
+    HeavyHitterTracker(int capacity, ToLongFunction<TokenCounter> score) {
+        this.capacity = capacity;
+        this.score = score;
+    }
+
+    /**
+     * Offers a token whose score just changed.
+     * @param key     The token's key.
+     * @param counter The token's counter.
+     * @param value   The token's new score.
+     */
+    void offer(TokenKey key, TokenCounter counter, long value) {
+        if (value <= floor) {
+            return;
+        }
+        if (null == candidates.putIfAbsent(key, counter) && candidates.size() > 2 * capacity) {
+            trim();
+        }
+    }
+
+    /**
+     * Lists the highest scoring tokens. Scores are read while the counters keep changing,
+     * so the result is a weakly consistent view.
+     * @param k Number of tokens to return, at most the capacity.
+     * @return Keys and counters of the top tokens, highest score first; tokens with a score of 0 are left out.
+     */
+    List<Map.Entry<TokenKey, TokenCounter>> top(int k) {
+        List<Scored> scored = snapshot();
+        scored.sort(Comparator.comparingLong(Scored::score).reversed());
+        List<Map.Entry<TokenKey, TokenCounter>> top = new ArrayList<>(Math.min(k, scored.size()));
+        for (Scored entry : scored) {
+            if (top.size() == k || entry.score() == 0) {
+                break;
+            }
+            top.add(Map.entry(entry.key(), entry.counter()));
+        }
+        return top;
+    }
+
+    /**
+     * @return Number of tokens that can be ranked.
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Rebuilds the candidates after scores went down, so that tokens evicted earlier, or never offered because
+     * they were below the floor, can be ranked again without waiting for their next request.
+     * Takes one weakly consistent pass over the counters; tokens counted meanwhile are offered as usual.
+     * @param counters The counters of all tracked tokens.
+     */
+    void rebuild(Map<TokenKey, TokenCounter> counters) {
+        floor = 0;
+        PriorityQueue<Scored> highest = new PriorityQueue<>(capacity, Comparator.comparingLong(Scored::score));
+        counters.forEach((key, counter) -> {
+            long value = score.applyAsLong(counter);
+            if (value == 0) {
+                return;
+            }
+            if (highest.size() < capacity) {
+                highest.add(new Scored(key, counter, value));
+            } else if (value > highest.peek().score()) {
+                highest.poll();
+                highest.add(new Scored(key, counter, value));
+            }
+        });
+        for (Scored scored : highest) {
+            candidates.putIfAbsent(scored.key(), scored.counter());
+        }
+        if (candidates.size() > capacity) {
+            trim();
+        }
+    }
+
+    /**
+     * Updates the candidates after a single token was reset. Only rebuilds from all counters when the token was
+     * a candidate and too few candidates with a score above 0 are left to fill the top; tokens that were never
+     * candidates score no higher than the remaining ones.
+     * @param key      The key of the reset token.
+     * @param counters The counters of all tracked tokens.
+     */
+    void reset(TokenKey key, Map<TokenKey, TokenCounter> counters) {
+        if (null == candidates.remove(key)) {
+            return;
+        }
+        long scored = candidates.values().stream().filter(counter -> score.applyAsLong(counter) > 0).count();
+        if (scored < capacity) {
+            rebuild(counters);
+        }
+    }
+
+    /**
+     * Removes all candidates.
+     */
+    void clear() {
+        candidates.clear();
+        floor = 0;
+    }
+
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Scored> scored = snapshot();
+            if (scored.size() <= capacity) {
+                return;
+            }
+            scored.sort(Comparator.comparingLong(Scored::score).reversed());
+            for (Scored evicted : scored.subList(capacity, scored.size())) {
+                candidates.remove(evicted.key(), evicted.counter());
+            }
+            floor = scored.get(capacity - 1).score();
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    // Scores are copied once, so that sorting sees stable values while counters keep changing.
+    private List<Scored> snapshot() {
+        List<Scored> scored = new ArrayList<>(candidates.size());
+        candidates.forEach((key, counter) -> scored.add(new Scored(key, counter, score.applyAsLong(counter))));
+        return scored;
+    }
+
+    private record Scored(TokenKey key, TokenCounter counter, long score) {
+    }
+}
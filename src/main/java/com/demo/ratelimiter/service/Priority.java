@@ -0,0 +1,10 @@
+package com.demo.ratelimiter.service;
+
+/**
+ * Priority classes for shaped admission. Waiting requests are served in declaration order,
+ * so interactive traffic always gets a freed slot before batch traffic.
+ */
+public enum Priority {
+    INTERACTIVE,
+    BATCH
+}
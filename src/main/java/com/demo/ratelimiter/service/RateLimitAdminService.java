@@ -0,0 +1,215 @@
+package com.demo.ratelimiter.service;
+
+
+import com.demo.ratelimiter.controller.dto.TokenUsagePageResponse;
+import com.demo.ratelimiter.controller.dto.TokenUsageResponse;
+import com.demo.ratelimiter.exception.AdminOperationUnavailableException;
+import com.demo.ratelimiter.exception.InvalidAdminRequestException;
+import com.demo.ratelimiter.key.TokenKey;
+import com.demo.ratelimiter.key.TokenKeyResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read-optimized admin operations on the counters of {@link RateLimitService}: inspecting single tokens,
+ * listing tokens page by page, top-K queries and per-token or per-prefix resets and limits.
+ * Nothing here locks the whole counter map or copies it. Listings resume after the last key of the previous page
+ * in the service's key ordered index, with weakly consistent iteration, top-K queries read the incrementally
+ * maintained heavy hitter trackers, and only a single token's counter is locked at a time, for as long as it takes
+ * to copy or update its values.
+ */
+@Service
+public class RateLimitAdminService {
+
+    private final RateLimitService rateLimitService;
+
+    /**
+     * Constructs a RateLimitAdminService on top of the given service's counters.
+     * @param rateLimitService Service that holds the counters.
+     */
+    @Autowired
+    public RateLimitAdminService(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    /**
+     * Retrieves the usage of a single token.
+     * @param token The identifier for the requester.
+     * @return The token's usage, or empty if the token is not tracked.
+     */
+    public Optional<TokenUsageResponse> getTokenUsage(String token) {
+        TokenKey key = rateLimitService.resolveKey(token);
+        TokenCounter counter = rateLimitService.getTokenCounters().get(key);
+        return Optional.ofNullable(counter).map(c -> toResponse(key, c));
+    }
+
+    /**
+     * Lists tracked tokens page by page, in the order of their hashes. Each page starts right after the last hash
+     * of the previous one, so a page costs the same however deep into the listing it is. A token tracked for
+     * the whole listing is returned exactly once; tokens first seen during the listing are returned only if
+     * their hash is after the current page.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param limit  Maximum number of tokens on the page. Tokens sharing a hash are never split across pages,
+     *               so a page may exceed it by such tokens.
+     * @return The page and the cursor of the next page.
+     */
+    public TokenUsagePageResponse listTokens(String cursor, int limit) {
+        if (limit < 1) {
+            throw new InvalidAdminRequestException("limit must be at least 1");
+        }
+        Map<TokenKey, TokenCounter> remaining = rateLimitService.getTokenIndex();
+        if (null != cursor) {
+            long lastHash = parseCursor(cursor);
+            if (lastHash == -1L) { // The largest hash, nothing can follow it
+                return new TokenUsagePageResponse(List.of(), null);
+            }
+            remaining = rateLimitService.getTokenIndex().tailMap(TokenKey.first(lastHash + 1));
+        }
+        List<TokenUsageResponse> tokens = new ArrayList<>(limit);
+        TokenKey last = null;
+        boolean more = false;
+        for (Map.Entry<TokenKey, TokenCounter> entry : remaining.entrySet()) {
+            if (tokens.size() >= limit && entry.getKey().getHash() != last.getHash()) {
+                more = true;
+                break;
+            }
+            tokens.add(toResponse(entry.getKey(), entry.getValue()));
+            last = entry.getKey();
+        }
+        String nextCursor = more ? String.format("%016x", last.getHash()) : null;
+        return new TokenUsagePageResponse(tokens, nextCursor);
+    }
+
+    /**
+     * Lists the tokens with the most admitted or rate limited requests since tracking started or the last reset.
+     * @param metric What to rank tokens by.
+     * @param k      Number of tokens to return.
+     * @return The top tokens, highest first.
+     */
+    public List<TokenUsageResponse> getTopTokens(UsageMetric metric, int k) {
+        HeavyHitterTracker tracker = metric == UsageMetric.USAGE
+                ? rateLimitService.getTopUsage()
+                : rateLimitService.getTopRejections();
+        if (k < 1 || k > tracker.getCapacity()) {
+            throw new InvalidAdminRequestException("k must be between 1 and " + tracker.getCapacity());
+        }
+        List<TokenUsageResponse> top = new ArrayList<>(k);
+        for (Map.Entry<TokenKey, TokenCounter> entry : tracker.top(k)) {
+            top.add(toResponse(entry.getKey(), entry.getValue()));
+        }
+        return top;
+    }
+
+    /**
+     * Clears the counts of a single token.
+     * @param token The identifier for the requester.
+     * @return true if the token was tracked.
+     */
+    public boolean resetToken(String token) {
+        TokenKey key = rateLimitService.resolveKey(token);
+        TokenCounter counter = rateLimitService.getTokenCounters().get(key);
+        if (null == counter) {
+            return false;
+        }
+        counter.reset();
+        rateLimitService.getTopUsage().reset(key, rateLimitService.getTokenCounters());
+        rateLimitService.getTopRejections().reset(key, rateLimitService.getTokenCounters());
+        return true;
+    }
+
+    /**
+     * Clears the counts of every tracked token starting with the given prefix.
+     * @param prefix The token prefix, normalized like tokens are.
+     * @return Number of tokens reset.
+     */
+    public int resetTokensByPrefix(String prefix) {
+        int reset = forEachWithPrefix(prefix, TokenCounter::reset);
+        rebuildTrackers();
+        return reset;
+    }
+
+    /**
+     * Sets a limit for a single token, replacing the configured calls per interval. The token is tracked
+     * from now on if it was not already, so a limit can be raised before the token's first request.
+     * @param token The identifier for the requester.
+     * @param calls Allowed requests per interval for the token.
+     */
+    public void setTokenLimit(String token, int calls) {
+        rateLimitService.getOrCreateCounter(rateLimitService.resolveKey(token)).setLimitOverride(calls);
+    }
+
+    /**
+     * Sets a limit for every tracked token starting with the given prefix.
+     * @param prefix The token prefix, normalized like tokens are.
+     * @param calls  Allowed requests per interval for each token.
+     * @return Number of tokens updated.
+     */
+    public int setTokenLimitByPrefix(String prefix, int calls) {
+        return forEachWithPrefix(prefix, counter -> counter.setLimitOverride(calls));
+    }
+
+    /**
+     * Removes the per-token limit of a token, so the configured limit applies again.
+     * @param token The identifier for the requester.
+     * @return true if the token was tracked.
+     */
+    public boolean clearTokenLimit(String token) {
+        TokenCounter counter = rateLimitService.getTokenCounters().get(rateLimitService.resolveKey(token));
+        if (null == counter) {
+            return false;
+        }
+        counter.setLimitOverride(0);
+        return true;
+    }
+
+    private int forEachWithPrefix(String prefix, Consumer<TokenCounter> action) {
+        TokenKeyResolver tokenKeyResolver = rateLimitService.getTokenKeyResolver();
+        if (!tokenKeyResolver.isVerifyCollisions()) {
+            throw new AdminOperationUnavailableException("Prefix operations need full tokens, "
+                    + "enable ratelimit.keys.verify-collisions to keep them");
+        }
+        String normalizedPrefix = tokenKeyResolver.normalize(prefix);
+        int matched = 0;
+        for (Map.Entry<TokenKey, TokenCounter> entry : rateLimitService.getTokenCounters().entrySet()) {
+            if (entry.getKey().getFullKey().startsWith(normalizedPrefix)) {
+                action.accept(entry.getValue());
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static long parseCursor(String cursor) {
+        try {
+            return Long.parseUnsignedLong(cursor, 16);
+        } catch (NumberFormatException e) {
+            throw new InvalidAdminRequestException("cursor must be the nextCursor of a previous page");
+        }
+    }
+
+    // Resets lower scores, so tokens the trackers dropped may belong in the top again.
+    private void rebuildTrackers() {
+        rateLimitService.getTopUsage().rebuild(rateLimitService.getTokenCounters());
+        rateLimitService.getTopRejections().rebuild(rateLimitService.getTokenCounters());
+    }
+
+    private TokenUsageResponse toResponse(TokenKey key, TokenCounter counter) {
+        TokenCounter.Usage usage = rateLimitService.getUsage(counter);
+        int calls = usage.limitOverride() > 0 ? usage.limitOverride() : rateLimitService.getCurrentRateLimitConfig().getCalls();
+        TokenUsageResponse response = new TokenUsageResponse();
+        response.setToken(key.toString());
+        response.setCalls(calls);
+        response.setCurrentWindowCount(usage.currentWindowCount());
+        response.setRemaining(Math.max(0, calls - usage.currentWindowCount()));
+        response.setTotalAdmitted(usage.totalAdmitted());
+        response.setTotalRejected(usage.totalRejected());
+        response.setLimitOverride(usage.limitOverride() > 0 ? usage.limitOverride() : null);
+        return response;
+    }
+}
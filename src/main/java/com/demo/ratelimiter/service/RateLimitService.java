@@ -2,19 +2,23 @@ package com.demo.ratelimiter.service;
 
 
 import com.demo.ratelimiter.config.RateLimitConfig;
+import com.demo.ratelimiter.config.TokenKeyConfig;
 import com.demo.ratelimiter.controller.dto.RateLimitConfigUpdateRequest;
+import com.demo.ratelimiter.key.TokenKey;
+import com.demo.ratelimiter.key.TokenKeyResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
 
+import java.time.Clock;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
 
 /**
  * Controls rate limiting of client requests based on configurable limits.
- * It ensures thread-safe operations using locks and dynamically calculates rate limiting windows,
+ * It ensures thread-safe operations using per-token locks and dynamically calculates rate limiting windows,
  * enabling a flexible and scalable request rate. Supports updating rate limits, querying current configuration
  * and resetting state for testing or changing configuration.
  */
@@ -22,24 +26,54 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class RateLimitService {
 
     private static final Logger log = LoggerFactory.getLogger(RateLimitService.class);
+    // Number of tokens ranked by the heavy hitter trackers, the largest K admin top-K queries can ask for.
+    static final int HEAVY_HITTER_CAPACITY = 100;
     private final RateLimitConfig rateLimitConfig;
+    private final TokenKeyResolver tokenKeyResolver;
+    private final Clock clock;
+    // Handed to the counters, which read the window key only once they hold their lock.
+    private final LongSupplier currentWindowKey = this::getCurrentWindowKey;
 
-    // Holds locks for each token to synchronize access in a concurrent environment.
-    private final ConcurrentHashMap<String, Object> tokenLocks = new ConcurrentHashMap<>();
+    // Tracks the request count of the current window for each token, keyed by the token's hash.
+    // Each counter also serves as the lock that synchronizes access for its token.
+    private final ConcurrentHashMap<TokenKey, TokenCounter> tokenCounters = new ConcurrentHashMap<>();
+    // The same counters ordered by key, so admin listings can resume from the last key of a page.
+    // Only written when a token is first seen, never on the per-request path.
+    private final ConcurrentSkipListMap<TokenKey, TokenCounter> tokenIndex = new ConcurrentSkipListMap<>();
 
+    // Tokens with the most admitted and the most rate limited requests, maintained as requests are counted.
+    private final HeavyHitterTracker topUsage = new HeavyHitterTracker(HEAVY_HITTER_CAPACITY, TokenCounter::getTotalAdmitted);
+    private final HeavyHitterTracker topRejections = new HeavyHitterTracker(HEAVY_HITTER_CAPACITY, TokenCounter::getTotalRejected);
 
-    // Outer map: Tracks rate limiting data for each token with a concurrent map to manage time windows.
-    // Inner map: Holds the count of requests in an AtomicInteger for each time window, keyed by window start timestamp.
-    private final ConcurrentHashMap<String, ConcurrentHashMap<Long, AtomicInteger>> tokenAccessMap = new ConcurrentHashMap<>();
 
+    /**
+     * Constructs a RateLimitService with the given rate limit configuration and default token key handling.
+     * @param rateLimitConfig Configuration parameters for rate limiting.
+     */
+    public RateLimitService(RateLimitConfig rateLimitConfig) {
+        this(rateLimitConfig, new TokenKeyResolver(new TokenKeyConfig()));
+    }
 
     /**
-     * Constructs a RateLimitService with the given rate limit configuration.
+     * Constructs a RateLimitService with the given rate limit configuration and token key handling, using the system clock.
      * @param rateLimitConfig Configuration parameters for rate limiting.
+     * @param tokenKeyResolver Normalizes and hashes tokens into counter keys.
+     */
+    public RateLimitService(RateLimitConfig rateLimitConfig, TokenKeyResolver tokenKeyResolver) {
+        this(rateLimitConfig, tokenKeyResolver, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a RateLimitService with the given rate limit configuration, token key handling and time source.
+     * @param rateLimitConfig Configuration parameters for rate limiting.
+     * @param tokenKeyResolver Normalizes and hashes tokens into counter keys.
+     * @param clock Time source the rate limiting windows are aligned to.
      */
     @Autowired
-    public RateLimitService(RateLimitConfig rateLimitConfig) {
+    public RateLimitService(RateLimitConfig rateLimitConfig, TokenKeyResolver tokenKeyResolver, Clock clock) {
         this.rateLimitConfig = rateLimitConfig;
+        this.tokenKeyResolver = tokenKeyResolver;
+        this.clock = clock;
     }
 
     /**
@@ -48,29 +82,85 @@ public class RateLimitService {
      * @return true if the request is rate limited; false otherwise.
      */
     public boolean isRateLimited(String token) {
+        return isRateLimited(resolveKey(token));
+    }
+
+    /**
+     * Determines if a request identified by the given, already resolved, token key is rate limited.
+     * @param key The key of the requester's token.
+     * @return true if the request is rate limited; false otherwise.
+     */
+    public boolean isRateLimited(TokenKey key) {
+        return isRateLimited(key, true);
+    }
+
+    /**
+     * Admits the request if the current window still has room. Unlike {@link #isRateLimited(TokenKey)},
+     * a full window is not counted as a rejection, for callers that may still admit the request later.
+     * @param key The key of the requester's token.
+     * @return true if the request is admitted; false if the window is full.
+     */
+    boolean tryAdmit(TokenKey key) {
+        return !isRateLimited(key, false);
+    }
+
+    /**
+     * Counts a rejection for a request that was admitted neither right away nor later.
+     * @param key The key of the requester's token.
+     */
+    void recordRejection(TokenKey key) {
+        TokenCounter counter = tokenCounters.get(key);
+        if (null != counter) {
+            counter.recordRejection();
+            topRejections.offer(key, counter, counter.getTotalRejected());
+        }
+    }
+
+    private boolean isRateLimited(TokenKey key, boolean recordRejection) {
         try {
-            tokenLocks.computeIfAbsent(token, k -> new Object());
-            synchronized (tokenLocks.get(token)) {
-                long currentWindowKey = getCurrentWindowKey();
-                ConcurrentHashMap<Long, AtomicInteger> windows = tokenAccessMap.computeIfAbsent(token, k -> new ConcurrentHashMap<>());
-                AtomicInteger currentCount = windows.computeIfAbsent(currentWindowKey, k -> new AtomicInteger(0));
-
-                if (currentCount.incrementAndGet() > rateLimitConfig.getCalls()) {
-                    // Rate limit exceeded
-                    return true;
-                } else {
-                    // Remove old windows to prevent map bloat and focus on current data.
-                    cleanupOldWindows(token, currentWindowKey);
-                    return false;
-                }
+            TokenCounter counter = getOrCreateCounter(key);
+            boolean rateLimited = counter.tryAcquire(currentWindowKey, rateLimitConfig.getCalls());
+            if (!rateLimited) {
+                topUsage.offer(key, counter, counter.getTotalAdmitted());
+            } else if (recordRejection) {
+                counter.recordRejection();
+                topRejections.offer(key, counter, counter.getTotalRejected());
             }
+            return rateLimited;
         } catch (Exception e) {
-            log.error("An unexpected error occurred while checking the rate limit for token: {}", token, e);
+            log.error("An unexpected error occurred while checking the rate limit for token: {}", key, e);
             //  Keeping a safe failure state - considering the request as rate limited.
             return true;
         }
 
     }
+
+    /**
+     * Looks up the counter of a token, creating it on the token's first request.
+     * @param key The key of the requester's token.
+     * @return The token's counter.
+     */
+    TokenCounter getOrCreateCounter(TokenKey key) {
+        TokenCounter counter = tokenCounters.get(key);
+        if (null == counter) {
+            counter = tokenCounters.computeIfAbsent(key, k -> {
+                TokenCounter created = new TokenCounter();
+                tokenIndex.put(k, created);
+                return created;
+            });
+        }
+        return counter;
+    }
+
+    /**
+     * Normalizes and hashes a token into the key its counters are stored under.
+     * @param token The identifier for the requester.
+     * @return The token's key.
+     */
+    public TokenKey resolveKey(String token) {
+        return tokenKeyResolver.resolve(token);
+    }
+
     /**
      * Calculates the key representing the start of the current rate limiting window.
      * This method aligns the current time to the nearest window start based on the configured interval.
@@ -80,21 +170,71 @@ public class RateLimitService {
      * @return The timestamp marking the start of the current window.
      */
     private long getCurrentWindowKey() {
-        long currentTimeMillis = System.currentTimeMillis();
+        long currentTimeMillis = clock.millis();
         long intervalInMillis = rateLimitConfig.getInterval() * 1000;
         return (currentTimeMillis / intervalInMillis) * intervalInMillis;
     }
 
     /**
-     * Removes entries for time windows that are no longer relevant to the current rate limiting window.
-     * @param token The map of window start timestamps to request counts for a specific token.
-     * @param currentWindowKey The key representing the start of the current window.
+     * Calculates how long it takes until the next rate limiting window starts.
+     * @return Milliseconds until the start of the next window.
      */
-    private void cleanupOldWindows(String token, long currentWindowKey) {
-        ConcurrentHashMap<Long, AtomicInteger> windows = tokenAccessMap.get(token);
-        if (null != windows) {
-            windows.keySet().removeIf(windowKey -> windowKey < currentWindowKey);
-        }
+    long getMillisUntilNextWindow() {
+        long currentTimeMillis = clock.millis();
+        long intervalInMillis = rateLimitConfig.getInterval() * 1000;
+        return intervalInMillis - currentTimeMillis % intervalInMillis;
+    }
+
+    /**
+     * @return The counters of all tracked tokens. Iteration is weakly consistent and never blocks admission.
+     */
+    ConcurrentHashMap<TokenKey, TokenCounter> getTokenCounters() {
+        return tokenCounters;
+    }
+
+    /**
+     * @return The counters of all tracked tokens in key order. Iteration is weakly consistent and never blocks
+     *         admission.
+     */
+    ConcurrentSkipListMap<TokenKey, TokenCounter> getTokenIndex() {
+        return tokenIndex;
+    }
+
+    /**
+     * Takes a consistent copy of a counter, with the count of the current window.
+     * @param counter The token's counter.
+     * @return The counter's values.
+     */
+    TokenCounter.Usage getUsage(TokenCounter counter) {
+        return counter.usage(currentWindowKey);
+    }
+
+    /**
+     * @return Tracker of the tokens with the most admitted requests.
+     */
+    HeavyHitterTracker getTopUsage() {
+        return topUsage;
+    }
+
+    /**
+     * @return Tracker of the tokens with the most rate limited requests.
+     */
+    HeavyHitterTracker getTopRejections() {
+        return topRejections;
+    }
+
+    /**
+     * @return The time source the rate limiting windows are aligned to.
+     */
+    Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * @return The resolver that normalizes and hashes tokens.
+     */
+    TokenKeyResolver getTokenKeyResolver() {
+        return tokenKeyResolver;
     }
 
     /**
@@ -119,8 +259,10 @@ public class RateLimitService {
      * Ensures a fresh state for tests.
      */
     public void resetRateLimiter() {
-        // Clears request counts and token locks
-        tokenAccessMap.clear();
-        tokenLocks.clear();
+        // Clears request counts, which also drops the per-token locks
+        tokenCounters.clear();
+        tokenIndex.clear();
+        topUsage.clear();
+        topRejections.clear();
     }
 }
\ No newline at end of file
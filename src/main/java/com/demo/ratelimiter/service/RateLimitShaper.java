@@ -0,0 +1,276 @@
+package com.demo.ratelimiter.service;
+
+
+import com.demo.ratelimiter.config.ShapingConfig;
+import com.demo.ratelimiter.key.TokenKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shapes traffic on top of {@link RateLimitService}: when shaping is enabled, a request over the limit waits in a
+ * bounded per-token queue until the next window opens, instead of being rejected right away.
+ * Waiting requests are served by priority class and then in arrival order, and give up once their maximum wait is over.
+ * A full queue makes room for a request by rejecting the most recent request of a lower priority class.
+ * Requests wait as uncompleted futures; a single shared scheduler thread drains the queues at window boundaries,
+ * so no thread is parked per waiting request. A request is counted as rejected once, when it is finally rate limited,
+ * however often it found the window full while waiting. A waiting request whose future is completed or cancelled by the
+ * caller, for example when its HTTP request times out, leaves the queue and is never admitted.
+ */
+@Service
+public class RateLimitShaper {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitShaper.class);
+    private static final Comparator<Waiter> SERVICE_ORDER =
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence);
+
+    private final RateLimitService rateLimitService;
+    private final ShapingConfig shapingConfig;
+    private final ScheduledExecutorService scheduler;
+
+    // Queues of waiting requests, only present while a token has requests waiting.
+    private final ConcurrentHashMap<TokenKey, TokenQueue> tokenQueues = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a RateLimitShaper deciding admission through the given service.
+     * @param rateLimitService Service that counts requests against the limit.
+     * @param shapingConfig    Configuration parameters for shaping.
+     */
+    @Autowired
+    public RateLimitShaper(RateLimitService rateLimitService, ShapingConfig shapingConfig) {
+        this.rateLimitService = rateLimitService;
+        this.shapingConfig = shapingConfig;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-shaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Admits the request identified by the given token, delaying it if shaping is enabled and the limit is reached.
+     * @param token    The identifier for the requester.
+     * @param priority The priority class of the request.
+     * @return Future completing with true if the request is rate limited, or false once it is admitted.
+     */
+    public CompletableFuture<Boolean> acquire(String token, Priority priority) {
+        if (!shapingConfig.isEnabled()) {
+            return CompletableFuture.completedFuture(rateLimitService.isRateLimited(token));
+        }
+        TokenKey key = rateLimitService.resolveKey(token);
+        // Fast path: nobody is waiting for this token, so the request can try the current window directly.
+        boolean rateLimited = false;
+        if (!tokenQueues.containsKey(key)) {
+            rateLimited = !rateLimitService.tryAdmit(key);
+            if (!rateLimited) {
+                return CompletableFuture.completedFuture(false);
+            }
+        }
+        while (true) {
+            TokenQueue queue = tokenQueues.computeIfAbsent(key, TokenQueue::new);
+            CompletableFuture<Boolean> result = queue.enqueue(priority, rateLimited);
+            if (null != result) {
+                return result;
+            }
+            // The queue was retired concurrently, retry with a fresh one.
+        }
+    }
+
+    /**
+     * Stops the scheduler and rejects every request still waiting.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        tokenQueues.values().forEach(TokenQueue::rejectAll);
+        tokenQueues.clear();
+    }
+
+    private record Waiter(Priority priority, long sequence, long deadline, CompletableFuture<Boolean> future) {
+    }
+
+    /**
+     * Waiting requests of a single token. All state is guarded by the queue's monitor;
+     * futures are completed outside of it so that dependent callbacks never run under the lock.
+     */
+    private final class TokenQueue {
+
+        private final TokenKey key;
+        private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(SERVICE_ORDER);
+        private long nextSequence;
+        private boolean drainScheduled;
+        private boolean retired;
+
+        private TokenQueue(TokenKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Admits the request or adds it to the queue. When the queue is full, the request takes the place of
+         * the lowest ranked waiting request if it outranks it, and is rejected otherwise.
+         * @param priority      The priority class of the request.
+         * @param rateLimited   true if the request already tried the current window and was rate limited.
+         * @return The request's future, or null if this queue has been retired.
+         */
+        private CompletableFuture<Boolean> enqueue(Priority priority, boolean rateLimited) {
+            Waiter waiter;
+            Waiter evicted = null;
+            synchronized (this) {
+                if (retired) {
+                    return null;
+                }
+                // Waiting requests of the same or a higher priority go first, so only try the window if there are none.
+                if (!rateLimited && !hasWaitersAtOrAbove(priority)) {
+                    rateLimited = !rateLimitService.tryAdmit(key);
+                    if (!rateLimited) {
+                        retireIfIdle();
+                        return CompletableFuture.completedFuture(false);
+                    }
+                }
+                long now = rateLimitService.getClock().millis();
+                long untilNextWindow = rateLimitService.getMillisUntilNextWindow();
+                boolean canWait = untilNextWindow <= shapingConfig.getMaxWaitMillis();
+                if (canWait && waiters.size() >= shapingConfig.getMaxQueueSize()) {
+                    evicted = waiters.isEmpty() ? null : Collections.max(waiters, SERVICE_ORDER);
+                    if (null != evicted && evicted.priority().compareTo(priority) > 0) {
+                        waiters.remove(evicted);
+                    } else {
+                        evicted = null;
+                        canWait = false;
+                    }
+                }
+                if (!canWait) {
+                    retireIfIdle();
+                    rateLimitService.recordRejection(key);
+                    return CompletableFuture.completedFuture(true);
+                }
+                waiter = new Waiter(priority, nextSequence++, now + shapingConfig.getMaxWaitMillis(),
+                        new CompletableFuture<>());
+                waiters.add(waiter);
+                Waiter queued = waiter;
+                waiter.future().whenComplete((result, ex) -> withdraw(queued, result));
+                scheduleDrain(untilNextWindow);
+            }
+            if (null != evicted) {
+                reject(evicted);
+            }
+            return waiter.future();
+        }
+
+        /**
+         * Admits waiting requests into the window that just opened, in service order, until the limit is reached.
+         * Requests that can no longer be served before their deadline are rejected.
+         */
+        private void drain() {
+            List<Waiter> admitted = new ArrayList<>();
+            List<Waiter> rejected = new ArrayList<>();
+            synchronized (this) {
+                drainScheduled = false;
+                long now = rateLimitService.getClock().millis();
+                while (!waiters.isEmpty()) {
+                    Waiter head = waiters.peek();
+                    if (head.future().isDone()) {
+                        waiters.poll(); // Completed by the caller, its withdrawal is pending on this lock
+                    } else if (head.deadline() < now) {
+                        rejected.add(waiters.poll());
+                    } else if (!rateLimitService.tryAdmit(key)) {
+                        break;
+                    } else {
+                        admitted.add(waiters.poll());
+                    }
+                }
+                if (!waiters.isEmpty()) {
+                    long untilNextWindow = rateLimitService.getMillisUntilNextWindow();
+                    waiters.removeIf(waiter -> {
+                        if (waiter.deadline() < now + untilNextWindow) {
+                            rejected.add(waiter);
+                            return true;
+                        }
+                        return false;
+                    });
+                    if (!waiters.isEmpty()) {
+                        scheduleDrain(untilNextWindow);
+                    }
+                }
+                retireIfIdle();
+            }
+            admitted.forEach(waiter -> waiter.future().complete(false));
+            rejected.forEach(this::reject);
+        }
+
+        /**
+         * Removes a waiter whose future was completed while it was still queued, that is by the caller rather than by
+         * this queue. A waiter completed as rate limited is counted as rejected.
+         * @param waiter        The waiter whose future completed.
+         * @param rateLimited   The result it completed with, or null if it was cancelled or completed exceptionally.
+         */
+        private void withdraw(Waiter waiter, Boolean rateLimited) {
+            boolean withdrawn;
+            synchronized (this) {
+                withdrawn = waiters.remove(waiter);
+                if (withdrawn) {
+                    retireIfIdle();
+                }
+            }
+            if (withdrawn && Boolean.TRUE.equals(rateLimited)) {
+                rateLimitService.recordRejection(key);
+            }
+        }
+
+        private void rejectAll() {
+            List<Waiter> rejected;
+            synchronized (this) {
+                rejected = new ArrayList<>(waiters);
+                waiters.clear();
+                retired = true;
+            }
+            rejected.forEach(this::reject);
+        }
+
+        private void reject(Waiter waiter) {
+            rateLimitService.recordRejection(key);
+            waiter.future().complete(true);
+        }
+
+        private boolean hasWaitersAtOrAbove(Priority priority) {
+            Waiter head = waiters.peek();
+            return null != head && head.priority().compareTo(priority) <= 0;
+        }
+
+        private void scheduleDrain(long delayMillis) {
+            if (!drainScheduled) {
+                drainScheduled = true;
+                // One extra millisecond makes sure the drain runs after the window boundary has passed.
+                scheduler.schedule(() -> {
+                    try {
+                        drain();
+                    } catch (Exception e) {
+                        log.error("An unexpected error occurred while draining the queue for token: {}", key, e);
+                        rejectAll();
+                        tokenQueues.remove(key, this);
+                    }
+                }, delayMillis + 1, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void retireIfIdle() {
+            if (waiters.isEmpty() && !drainScheduled) {
+                retired = true;
+                tokenQueues.remove(key, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.demo.ratelimiter.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Request count of a single token in its current rate limiting window, plus running totals for admin queries.
+ * The counter doubles as the token's lock: all writes are synchronized on the instance.
+ * Only the current window is kept, so moving to a new window simply starts the count over.
+ * The window key is read once the lock is held, so requests are counted in the order they read the clock,
+ * and a clock that steps back simply starts the count over in the earlier window.
+ * The totals are volatile so that heavy hitter tracking can read them without taking the lock.
+ */
+final class TokenCounter {
+
+    private long windowKey = Long.MIN_VALUE;
+    private int count;
+    private int limitOverride; // Per-token limit replacing the configured one, 0 if none
+    private volatile long totalAdmitted;
+    private volatile long totalRejected;
+
+    /**
+     * Counts a request against the limit of the current window, unless the limit is already reached.
+     * A rate limited request is not counted as rejected here, see {@link #recordRejection()}.
+     * @param currentWindowKey Supplies the start of the current window, read under the lock.
+     * @param limit            Allowed requests per window, unless the token has its own limit.
+     * @return true if the request is rate limited; false otherwise.
+     */
+    synchronized boolean tryAcquire(LongSupplier currentWindowKey, int limit) {
+        long windowKey = currentWindowKey.getAsLong();
+        if (this.windowKey != windowKey) {
+            this.windowKey = windowKey;
+            count = 0;
+        }
+        if (count >= (limitOverride > 0 ? limitOverride : limit)) {
+            return true;
+        }
+        count++;
+        totalAdmitted++;
+        return false;
+    }
+
+    /**
+     * Counts a request that was rate limited. Kept apart from {@link #tryAcquire}, since a request that waits for
+     * a later window may find the window full several times before it is admitted or rejected.
+     */
+    synchronized void recordRejection() {
+        totalRejected++;
+    }
+
+    /**
+     * @param currentWindowKey Supplies the start of the current window, read under the lock.
+     * @return Requests admitted in the current window so far.
+     */
+    synchronized int getCount(LongSupplier currentWindowKey) {
+        return windowKey == currentWindowKey.getAsLong() ? count : 0;
+    }
+
+    /**
+     * @return Requests admitted since the counter was created or last reset.
+     */
+    long getTotalAdmitted() {
+        return totalAdmitted;
+    }
+
+    /**
+     * @return Requests rate limited since the counter was created or last reset.
+     */
+    long getTotalRejected() {
+        return totalRejected;
+    }
+
+    /**
+     * Sets a limit for this token only.
+     * @param limitOverride Allowed requests per window, or 0 to go back to the configured limit.
+     */
+    synchronized void setLimitOverride(int limitOverride) {
+        this.limitOverride = limitOverride;
+    }
+
+    /**
+     * Clears the current window count and the totals. A per-token limit is kept.
+     */
+    synchronized void reset() {
+        count = 0;
+        totalAdmitted = 0;
+        totalRejected = 0;
+    }
+
+    /**
+     * Takes a consistent copy of the counter.
+     * @param currentWindowKey Supplies the start of the current window, read under the lock.
+     * @return The counter's values.
+     */
+    synchronized Usage usage(LongSupplier currentWindowKey) {
+        return new Usage(getCount(currentWindowKey), totalAdmitted, totalRejected, limitOverride);
+    }
+
+    /**
+     * @param currentWindowCount Requests admitted in the current window.
+     * @param totalAdmitted      Requests admitted since creation or the last reset.
+     * @param totalRejected      Requests rate limited since creation or the last reset.
+     * @param limitOverride      Per-token limit, 0 if the configured limit applies.
+     */
+    record Usage(int currentWindowCount, long totalAdmitted, long totalRejected, int limitOverride) {
+    }
+}
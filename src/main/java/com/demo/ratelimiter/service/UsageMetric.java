@@ -0,0 +1,9 @@
+package com.demo.ratelimiter.service;
+
+/**
+ * Metrics tokens can be ranked by in top-K queries.
+ */
+public enum UsageMetric {
+    USAGE, // Admitted requests
+    REJECTIONS // Rate limited requests
+}
@@ -0,0 +1,151 @@
+package com.demo.ratelimiter.controller;
+
+
+import com.demo.ratelimiter.util.BaseRateLimiterTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RateLimitAdminControllerTest extends BaseRateLimiterTest {
+
+    @Test
+    @DisplayName("Test inspecting the usage of a single token")
+    public void testGetToken() throws Exception {
+        // Arrange
+        configureSuccessfulRateLimit(getRequestJson(5, 45));
+        for (int i = 0; i < 7; i++) {
+            mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "testToken"));
+        }
+
+        // Action and Assert
+        mockMvc.perform(get(ADMIN_TOKENS_ENDPOINT + "/testToken"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calls").value(5))
+                .andExpect(jsonPath("$.currentWindowCount").value(5))
+                .andExpect(jsonPath("$.remaining").value(0))
+                .andExpect(jsonPath("$.totalAdmitted").value(5))
+                .andExpect(jsonPath("$.totalRejected").value(2));
+        mockMvc.perform(get(ADMIN_TOKENS_ENDPOINT + "/unknownToken"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Test listing the top tokens by usage and by rejections")
+    public void testGetTopTokens() throws Exception {
+        // Arrange - token1 uses its full limit, token2 part of it, token3 gets rate limited
+        configureSuccessfulRateLimit(getRequestJson(3, 45));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "token1"));
+        }
+        mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "token2"));
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "token3"));
+        }
+
+        // Action and Assert
+        mockMvc.perform(get(ADMIN_TOP_ENDPOINT).param("by", "USAGE").param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].totalAdmitted").value(3))
+                .andExpect(jsonPath("$[1].totalAdmitted").value(3));
+        mockMvc.perform(get(ADMIN_TOP_ENDPOINT).param("by", "REJECTIONS").param("k", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].totalRejected").value(2));
+        mockMvc.perform(get(ADMIN_TOP_ENDPOINT).param("k", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test listing tokens page by page")
+    public void testListTokens() throws Exception {
+        // Arrange
+        configureSuccessfulRateLimit(getRequestJson(5, 45));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "testToken" + i));
+        }
+
+        // Action and Assert
+        String firstPage = mockMvc.perform(get(ADMIN_TOKENS_ENDPOINT).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokens.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+        mockMvc.perform(get(ADMIN_TOKENS_ENDPOINT).param("cursor", nextCursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokens.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get(ADMIN_TOKENS_ENDPOINT).param("cursor", "notACursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test resetting a token lets it make requests again")
+    public void testResetToken() throws Exception {
+        // Arrange
+        configureSuccessfulRateLimit(getRequestJson(2, 45));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "testToken"));
+        }
+
+        // Action and Assert
+        mockMvc.perform(delete(ADMIN_TOKENS_ENDPOINT + "/testToken"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "testToken"))
+                .andExpect(content().string("false"));
+        mockMvc.perform(delete(ADMIN_TOKENS_ENDPOINT + "/unknownToken"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Test raising the limit of a single token")
+    public void testSetTokenLimit() throws Exception {
+        // Arrange
+        configureSuccessfulRateLimit(getRequestJson(2, 45));
+
+        // Action
+        mockMvc.perform(put(ADMIN_TOKENS_ENDPOINT + "/testToken/limit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"calls\": 4}"))
+                .andExpect(status().isOk());
+
+        // Assert - the raised token gets 4 calls, other tokens keep 2
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "testToken"))
+                    .andExpect(content().string("false"));
+        }
+        mockMvc.perform(get(IS_RATE_LIMITED_ENDPOINT + "testToken"))
+                .andExpect(content().string("true"));
+        mockMvc.perform(get(ADMIN_TOKENS_ENDPOINT + "/otherToken"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put(ADMIN_TOKENS_ENDPOINT + "/testToken/limit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"calls\": 0}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test prefix operations are refused when full tokens are not kept")
+    public void testResetTokensByPrefix_WithoutFullKeys() throws Exception {
+        mockMvc.perform(delete(ADMIN_TOKENS_ENDPOINT).param("prefix", "test"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Test prefix operations without a prefix are bad requests")
+    public void testPrefixOperations_MissingPrefix() throws Exception {
+        mockMvc.perform(delete(ADMIN_TOKENS_ENDPOINT))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.prefix").value("Required parameter is missing"));
+        mockMvc.perform(put(ADMIN_TOKENS_ENDPOINT + "/limit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"calls\": 4}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.prefix").value("Required parameter is missing"));
+    }
+}
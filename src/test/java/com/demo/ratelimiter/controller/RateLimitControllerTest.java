@@ -1,17 +1,24 @@
 package com.demo.ratelimiter.controller;
 
 
+import com.demo.ratelimiter.config.ShapingConfig;
 import com.demo.ratelimiter.util.BaseRateLimiterTest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 public class RateLimitControllerTest extends BaseRateLimiterTest {
 
+    @Autowired
+    private ShapingConfig shapingConfig;
+
     @Test
     @DisplayName("Test configuring rate limit successfully")
     public void testConfigureRateLimit() throws Exception {
@@ -98,5 +105,65 @@ public class RateLimitControllerTest extends BaseRateLimiterTest {
                         .content(requestJson))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    @DisplayName("Test shaped admission answers asynchronously and defaults to the interactive priority")
+    public void testAcquire() throws Exception {
+        // Arrange - shaping is disabled by default, so the endpoint answers like is_rate_limited
+        configureSuccessfulRateLimit(getRequestJson(2, 45));
+
+        // Action and Assert
+        for (int i = 0; i < 2; i++) {
+            MvcResult admitted = mockMvc.perform(get(ACQUIRE_ENDPOINT + "testToken"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(admitted))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("false"));
+        }
+        MvcResult rateLimited = mockMvc.perform(get(ACQUIRE_ENDPOINT + "testToken").param("priority", "BATCH"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(rateLimited))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+    }
+
+    @Test
+    @DisplayName("Test shaped admission rejects a request that cannot be served within the maximum wait")
+    public void testAcquire_ShapingEnabled() throws Exception {
+        // Arrange - the next window is always at least a millisecond away, longer than the maximum wait
+        configureSuccessfulRateLimit(getRequestJson(1, 45));
+        shapingConfig.setEnabled(true);
+        long maxWaitMillis = shapingConfig.getMaxWaitMillis();
+        shapingConfig.setMaxWaitMillis(0);
+        try {
+            MvcResult admitted = mockMvc.perform(get(ACQUIRE_ENDPOINT + "testToken"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Action and Assert
+            mockMvc.perform(asyncDispatch(admitted))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("false"));
+            MvcResult rateLimited = mockMvc.perform(get(ACQUIRE_ENDPOINT + "testToken"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(rateLimited))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("true"));
+        } finally {
+            shapingConfig.setEnabled(false);
+            shapingConfig.setMaxWaitMillis(maxWaitMillis);
+        }
+    }
+
+    @Test
+    @DisplayName("Test shaped admission with an unknown priority")
+    public void testAcquireWithInvalidPriority() throws Exception {
+        // Action and Assert
+        mockMvc.perform(get(ACQUIRE_ENDPOINT + "testToken").param("priority", "URGENT"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.priority").value("Invalid value: URGENT"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.demo.ratelimiter.key;
+
+import com.demo.ratelimiter.config.TokenKeyConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenKeyResolverTest {
+
+    @Test
+    @DisplayName("Test equal tokens resolve to equal keys and different tokens to different keys")
+    public void testResolve() {
+        // Arrange
+        TokenKeyResolver resolver = new TokenKeyResolver(new TokenKeyConfig());
+
+        // Act
+        TokenKey first = resolver.resolve(new String("testToken"));
+        TokenKey second = resolver.resolve(new String("testToken"));
+        TokenKey other = resolver.resolve("testToken2");
+
+        // Assert
+        assertEquals(first, second, "The same token should always resolve to the same key.");
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, other, "Different tokens should resolve to different keys.");
+        assertNull(first.getFullKey(), "Full keys should not be kept without collision verification.");
+    }
+
+    @Test
+    @DisplayName("Test case folding and prefix stripping")
+    public void testResolve_Normalization() {
+        // Arrange
+        TokenKeyConfig config = new TokenKeyConfig();
+        config.setCaseSensitive(false);
+        config.setStripPrefixes(List.of("Bearer ", "key-"));
+        TokenKeyResolver resolver = new TokenKeyResolver(config);
+
+        // Act and Assert
+        TokenKey expected = resolver.resolve("abcdef0123456789xyz");
+        assertEquals(expected, resolver.resolve("ABCDEF0123456789XYZ"));
+        assertEquals(expected, resolver.resolve("bearer abcdef0123456789xyz"));
+        assertEquals(expected, resolver.resolve("KEY-AbCdEf0123456789XyZ"));
+        assertNotEquals(expected, resolver.resolve("xabcdef0123456789xyz"));
+    }
+
+    @Test
+    @DisplayName("Test full keys are kept and compared when collision verification is enabled")
+    public void testResolve_VerifyCollisions() {
+        // Arrange
+        TokenKeyConfig config = new TokenKeyConfig();
+        config.setCaseSensitive(false);
+        config.setStripPrefixes(List.of("Bearer "));
+        config.setVerifyCollisions(true);
+        TokenKeyResolver resolver = new TokenKeyResolver(config);
+
+        // Act
+        TokenKey key = resolver.resolve("Bearer TestToken");
+
+        // Assert
+        assertEquals("testtoken", key.getFullKey(), "Full key should be the normalized token.");
+        assertEquals(resolver.resolve("testtoken"), key);
+        // Keys with the same hash but different tokens must not be treated as the same token.
+        assertNotEquals(new TokenKey(key.getHash(), "othertoken"), key);
+    }
+}
@@ -0,0 +1,159 @@
+package com.demo.ratelimiter.service;
+
+
+import com.demo.ratelimiter.config.RateLimitConfig;
+import com.demo.ratelimiter.config.TokenKeyConfig;
+import com.demo.ratelimiter.controller.dto.TokenUsagePageResponse;
+import com.demo.ratelimiter.controller.dto.TokenUsageResponse;
+import com.demo.ratelimiter.exception.AdminOperationUnavailableException;
+import com.demo.ratelimiter.key.TokenKeyResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitAdminServiceTest {
+
+    private RateLimitService rateLimiterService;
+    private RateLimitAdminService rateLimitAdminService;
+
+    @BeforeEach
+    public void setUp() {
+        // Arrange - full tokens are kept so that prefix operations are possible
+        TokenKeyConfig tokenKeyConfig = new TokenKeyConfig();
+        tokenKeyConfig.setVerifyCollisions(true);
+        rateLimiterService = new RateLimitService(new RateLimitConfig(1000, 60), new TokenKeyResolver(tokenKeyConfig));
+        rateLimitAdminService = new RateLimitAdminService(rateLimiterService);
+    }
+
+    @Test
+    @DisplayName("Test top tokens stay correct after many tokens pass through the heavy hitter tracker")
+    public void testGetTopTokens_ManyTokens() {
+        // Arrange - token i makes i % 50 + 1 requests, so tokens 49, 99, ... make the most
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j <= i % 50; j++) {
+                rateLimiterService.isRateLimited("token" + i);
+            }
+        }
+
+        // Act
+        List<TokenUsageResponse> top = rateLimitAdminService.getTopTokens(UsageMetric.USAGE, 20);
+
+        // Assert
+        assertEquals(20, top.size());
+        top.forEach(usage -> assertEquals(50, usage.getTotalAdmitted(),
+                "Only tokens with the highest usage should be listed, got " + usage.getToken()));
+    }
+
+    @Test
+    @DisplayName("Test top tokens include tokens the tracker dropped earlier once the leaders are reset")
+    public void testGetTopTokens_AfterReset() {
+        // Arrange - 150 tokens with 10 requests push the 150 tokens with 5 requests out of the tracker
+        for (int i = 0; i < 150; i++) {
+            for (int j = 0; j < 10; j++) {
+                rateLimiterService.isRateLimited("tenant-a:" + i);
+            }
+        }
+        for (int i = 0; i < 150; i++) {
+            for (int j = 0; j < 5; j++) {
+                rateLimiterService.isRateLimited("tenant-b:" + i);
+            }
+        }
+
+        // Act - the tenant-b tokens make no further requests
+        rateLimitAdminService.resetTokensByPrefix("tenant-a:");
+        List<TokenUsageResponse> top = rateLimitAdminService.getTopTokens(UsageMetric.USAGE, 10);
+
+        // Assert
+        assertEquals(10, top.size(), "Top tokens should be found without waiting for new requests.");
+        top.forEach(usage -> assertEquals(5, usage.getTotalAdmitted(),
+                "Only tenant-b tokens should be listed after the reset, got " + usage.getToken()));
+    }
+
+    @Test
+    @DisplayName("Test top tokens are refilled from all tokens when a single reset leaves the tracker short")
+    public void testGetTopTokens_AfterSingleReset() {
+        // Arrange - 250 tokens with 10 requests each; the tracker keeps 100 of them and drops the rest
+        for (int i = 0; i < 250; i++) {
+            for (int j = 0; j < 10; j++) {
+                rateLimiterService.isRateLimited("token" + i);
+            }
+        }
+        String leader = rateLimitAdminService.getTopTokens(UsageMetric.USAGE, 1).get(0).getToken();
+
+        // Act
+        rateLimitAdminService.resetToken(leader);
+        List<TokenUsageResponse> top = rateLimitAdminService.getTopTokens(UsageMetric.USAGE, 100);
+
+        // Assert
+        assertEquals(100, top.size(), "A dropped token should take the place of the reset token.");
+        top.forEach(usage -> {
+            assertNotEquals(leader, usage.getToken(), "The reset token should not be listed.");
+            assertEquals(10, usage.getTotalAdmitted());
+        });
+    }
+
+    @Test
+    @DisplayName("Test paging through tokens returns every token once while new tokens keep arriving")
+    public void testListTokens_NewTokensBetweenPages() {
+        // Arrange
+        for (int i = 0; i < 500; i++) {
+            rateLimiterService.isRateLimited("token" + i);
+        }
+
+        // Act - new tokens arrive after every page, growing the counter maps several times over
+        Set<String> listed = new HashSet<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            TokenUsagePageResponse page = rateLimitAdminService.listTokens(cursor, 50);
+            page.getTokens().forEach(usage -> assertTrue(listed.add(usage.getToken()),
+                    "Token should not be listed twice: " + usage.getToken()));
+            for (int i = 0; i < 200; i++) {
+                rateLimiterService.isRateLimited("newToken" + pages + "-" + i);
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (null != cursor);
+
+        // Assert
+        for (int i = 0; i < 500; i++) {
+            assertTrue(listed.contains("token" + i), "Token tracked for the whole listing should be listed: token" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Test resetting and raising tokens by prefix")
+    public void testPrefixOperations() {
+        // Arrange
+        rateLimiterService.isRateLimited("tenant-a:1");
+        rateLimiterService.isRateLimited("tenant-a:2");
+        rateLimiterService.isRateLimited("tenant-b:1");
+
+        // Act
+        int reset = rateLimitAdminService.resetTokensByPrefix("tenant-a:");
+        int updated = rateLimitAdminService.setTokenLimitByPrefix("tenant-b:", 5000);
+
+        // Assert
+        assertEquals(2, reset, "Both tenant-a tokens should be reset.");
+        assertEquals(1, updated, "The tenant-b token should get the new limit.");
+        assertEquals(0, rateLimitAdminService.getTokenUsage("tenant-a:1").orElseThrow().getTotalAdmitted());
+        assertEquals(1, rateLimitAdminService.getTokenUsage("tenant-b:1").orElseThrow().getTotalAdmitted());
+        assertEquals(5000, rateLimitAdminService.getTokenUsage("tenant-b:1").orElseThrow().getCalls());
+    }
+
+    @Test
+    @DisplayName("Test prefix operations are refused when full tokens are not kept")
+    public void testPrefixOperations_WithoutFullKeys() {
+        // Arrange
+        rateLimitAdminService = new RateLimitAdminService(new RateLimitService(new RateLimitConfig(10, 60)));
+
+        // Act and Assert
+        assertThrows(AdminOperationUnavailableException.class, () -> rateLimitAdminService.resetTokensByPrefix("tenant-a:"));
+    }
+}
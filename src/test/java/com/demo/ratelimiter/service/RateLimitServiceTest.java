@@ -2,16 +2,17 @@ package com.demo.ratelimiter.service;
 
 
 import com.demo.ratelimiter.config.RateLimitConfig;
+import com.demo.ratelimiter.config.TokenKeyConfig;
 import com.demo.ratelimiter.controller.dto.RateLimitConfigUpdateRequest;
+import com.demo.ratelimiter.key.TokenKeyResolver;
+import com.demo.ratelimiter.util.MutableClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -48,6 +49,23 @@ public class RateLimitServiceTest {
         assertTrue(result, "Token should be rate limited when exceeding threshold.");
     }
 
+    @Test
+    @DisplayName("Test limit is enforced exactly up to the window boundary")
+    public void testIsRateLimited_WindowBoundary() {
+        // Arrange - virtual clock at the last millisecond of the window starting at 60 seconds
+        MutableClock clock = new MutableClock(119_999);
+        rateLimiterService = new RateLimitService(new RateLimitConfig(2, 60), new TokenKeyResolver(new TokenKeyConfig()), clock);
+
+        // Act and Assert
+        assertFalse(rateLimiterService.isRateLimited("testToken"), "First request should not be rate limited.");
+        assertFalse(rateLimiterService.isRateLimited("testToken"), "Second request should not be rate limited.");
+        assertTrue(rateLimiterService.isRateLimited("testToken"), "Third request in the same window should be rate limited.");
+
+        clock.advance(1);
+        assertFalse(rateLimiterService.isRateLimited("testToken"), "First request of the next window should not be rate limited.");
+        assertEquals(60_000, rateLimiterService.getMillisUntilNextWindow(), "Next window should start a full interval later.");
+    }
+
     @Test
     @DisplayName("Test calculation of current window key")
     public void testGetCurrentWindowKey() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
@@ -61,39 +79,64 @@ public class RateLimitServiceTest {
     }
 
     @Test
-    @DisplayName("Test cleanup of old windows")
-    @SuppressWarnings("unchecked") // Suppress the unchecked cast warning
-    public void testCleanupOldWindows() throws Exception {
+    @DisplayName("Test token counter starts over in a new window")
+    public void testTokenCounterNewWindow() {
+        // Arrange
+        TokenCounter counter = new TokenCounter();
+        long oldWindowKey = 60000;
+        long currentWindowKey = 120000;
+        counter.tryAcquire(() -> oldWindowKey, 2);
+        counter.tryAcquire(() -> oldWindowKey, 2);
+
+        // Act
+        boolean oldWindowResult = counter.tryAcquire(() -> oldWindowKey, 2);
+        boolean currentWindowResult = counter.tryAcquire(() -> currentWindowKey, 2);
+
+        // Assert
+        assertTrue(oldWindowResult, "Third request in the old window should be rate limited.");
+        assertFalse(currentWindowResult, "First request in the new window should not be rate limited.");
+        assertEquals(1, counter.getCount(() -> currentWindowKey), "Only the current window's request should be counted.");
+        assertEquals(0, counter.getCount(() -> oldWindowKey), "Counts of old windows should not be kept.");
+    }
+
+    @Test
+    @DisplayName("Test counting starts over when the clock steps back to an earlier window")
+    public void testIsRateLimited_ClockStepsBack() {
+        // Arrange - the limit is used up, then the clock is set back a full window, as an NTP correction might do
+        MutableClock clock = new MutableClock(120_000);
+        rateLimiterService = new RateLimitService(new RateLimitConfig(2, 60), new TokenKeyResolver(new TokenKeyConfig()), clock);
+        rateLimiterService.isRateLimited("testToken");
+        rateLimiterService.isRateLimited("testToken");
+        clock.set(119_999);
+
+        // Act
+        boolean result = rateLimiterService.isRateLimited("testToken");
+
+        // Assert
+        TokenCounter counter = rateLimiterService.getTokenCounters().get(rateLimiterService.resolveKey("testToken"));
+        assertFalse(result, "First request of the earlier window should not be rate limited.");
+        assertEquals(1, rateLimiterService.getUsage(counter).currentWindowCount(),
+                "Usage should report the requests of the window the clock is in.");
+        assertFalse(rateLimiterService.isRateLimited("testToken"), "Second request of the earlier window should not be rate limited.");
+        assertTrue(rateLimiterService.isRateLimited("testToken"), "Earlier window should admit no more than the limit.");
+    }
+
+    @Test
+    @DisplayName("Test tokens are normalized before counting")
+    public void testIsRateLimited_NormalizedTokens() {
         // Arrange
-        String testToken = "testToken";
-        long currentWindowKey = System.currentTimeMillis();
-        long oldWindowKey1 = currentWindowKey - 20000; // Calculating an old window
-        long oldWindowKey2 = currentWindowKey - 10000; // Calculating an old window
-
-        // Reflection to access the tokenAccessMap
-        Field tokenAccessMapField = RateLimitService.class.getDeclaredField("tokenAccessMap");
-        tokenAccessMapField.setAccessible(true);
-        ConcurrentHashMap<String, ConcurrentHashMap<Long, AtomicInteger>> tokenAccessMap =
-                (ConcurrentHashMap<String, ConcurrentHashMap<Long, AtomicInteger>>) tokenAccessMapField.get(rateLimiterService);
-
-        // Populate tokenAccessMap with test data
-        ConcurrentHashMap<Long, AtomicInteger> windows = new ConcurrentHashMap<>();
-        windows.put(oldWindowKey1, new AtomicInteger(2));
-        windows.put(oldWindowKey2, new AtomicInteger(3));
-        windows.put(currentWindowKey, new AtomicInteger(1)); // Current window
-        tokenAccessMap.put(testToken, windows);
-
-        // Access the private method cleanupOldWindows using reflection
-        Method cleanupMethod = RateLimitService.class.getDeclaredMethod("cleanupOldWindows", String.class, long.class);
-        cleanupMethod.setAccessible(true);
+        TokenKeyConfig tokenKeyConfig = new TokenKeyConfig();
+        tokenKeyConfig.setCaseSensitive(false);
+        tokenKeyConfig.setStripPrefixes(List.of("Bearer "));
+        rateLimiterService = new RateLimitService(new RateLimitConfig(2, 60), new TokenKeyResolver(tokenKeyConfig));
 
         // Act
-        cleanupMethod.invoke(rateLimiterService, testToken, currentWindowKey);
+        rateLimiterService.isRateLimited("testToken");
+        rateLimiterService.isRateLimited("Bearer TESTTOKEN");
+        boolean result = rateLimiterService.isRateLimited("bearer testtoken");
 
         // Assert
-        ConcurrentHashMap<Long, AtomicInteger> updatedWindows = tokenAccessMap.get(testToken);
-        assertEquals(1, updatedWindows.size(), "Only the current window should remain.");
-        assertTrue(updatedWindows.containsKey(currentWindowKey), "The current window should remain.");
+        assertTrue(result, "Tokens differing only in case and prefix should share one counter.");
     }
 
 
@@ -0,0 +1,167 @@
+package com.demo.ratelimiter.service;
+
+
+import com.demo.ratelimiter.config.RateLimitConfig;
+import com.demo.ratelimiter.config.ShapingConfig;
+import com.demo.ratelimiter.config.TokenKeyConfig;
+import com.demo.ratelimiter.key.TokenKeyResolver;
+import com.demo.ratelimiter.util.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitShaperTest {
+
+    // Windows only change when a test advances the clock. Staying 10 ms before the end of a window keeps the
+    // shaper's scheduled drains short, since they are delayed by the virtual time left in the window.
+    private static final long WINDOW_MILLIS = 1000;
+    private static final long START_MILLIS = 1_000_000 * WINDOW_MILLIS - 10;
+
+    private MutableClock clock;
+    private ShapingConfig shapingConfig;
+    private RateLimitService rateLimitService;
+    private RateLimitShaper rateLimitShaper;
+
+    @BeforeEach
+    public void setUp() {
+        // Arrange - one call per one second window
+        RateLimitConfig rateLimitConfig = new RateLimitConfig(1, 1);
+        clock = new MutableClock(START_MILLIS);
+        shapingConfig = new ShapingConfig();
+        shapingConfig.setEnabled(true);
+        shapingConfig.setMaxQueueSize(10);
+        shapingConfig.setMaxWaitMillis(3000);
+        rateLimitService = new RateLimitService(rateLimitConfig, new TokenKeyResolver(new TokenKeyConfig()), clock);
+        rateLimitShaper = new RateLimitShaper(rateLimitService, shapingConfig);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        rateLimitShaper.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test request over the limit waits for the next window instead of being rejected")
+    public void testAcquire_WaitsForNextWindow() throws Exception {
+        // Act
+        boolean first = rateLimitShaper.acquire("testToken", Priority.BATCH).get(1, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> second = rateLimitShaper.acquire("testToken", Priority.BATCH);
+
+        // Assert
+        assertFalse(first, "First request should be admitted right away.");
+        Thread.sleep(50); // Drains run in the same virtual window until the clock moves
+        assertFalse(second.isDone(), "Second request should wait for the next window.");
+        clock.advance(WINDOW_MILLIS);
+        assertFalse(second.get(3, TimeUnit.SECONDS), "Second request should be admitted in the next window.");
+        TokenCounter counter = rateLimitService.getTokenCounters().get(rateLimitService.resolveKey("testToken"));
+        assertEquals(2, counter.getTotalAdmitted(), "Both requests should be counted as admitted.");
+        assertEquals(0, counter.getTotalRejected(), "A request that waited and was admitted is not a rejection.");
+    }
+
+    @Test
+    @DisplayName("Test interactive requests are served ahead of batch requests")
+    public void testAcquire_InteractiveServedFirst() throws Exception {
+        // Arrange
+        List<Priority> completionOrder = new CopyOnWriteArrayList<>();
+        rateLimitShaper.acquire("testToken", Priority.INTERACTIVE).get(1, TimeUnit.SECONDS);
+
+        // Act - batch request queues first, interactive request queues after it
+        CompletableFuture<Boolean> batch = rateLimitShaper.acquire("testToken", Priority.BATCH)
+                .whenComplete((result, ex) -> completionOrder.add(Priority.BATCH));
+        CompletableFuture<Boolean> interactive = rateLimitShaper.acquire("testToken", Priority.INTERACTIVE)
+                .whenComplete((result, ex) -> completionOrder.add(Priority.INTERACTIVE));
+
+        // Assert - each window has room for one of them
+        clock.advance(WINDOW_MILLIS);
+        assertFalse(interactive.get(3, TimeUnit.SECONDS), "Interactive request should be admitted.");
+        assertFalse(batch.isDone(), "Batch request should wait for a later window.");
+        clock.advance(WINDOW_MILLIS);
+        assertFalse(batch.get(3, TimeUnit.SECONDS), "Batch request should be admitted in a later window.");
+        assertEquals(List.of(Priority.INTERACTIVE, Priority.BATCH), completionOrder,
+                "Interactive request should be served before the batch request that queued earlier.");
+    }
+
+    @Test
+    @DisplayName("Test request is rejected when the token queue is full")
+    public void testAcquire_QueueFull() throws Exception {
+        // Arrange
+        shapingConfig.setMaxQueueSize(1);
+        rateLimitShaper.acquire("testToken", Priority.BATCH).get(1, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = rateLimitShaper.acquire("testToken", Priority.BATCH);
+
+        // Act
+        CompletableFuture<Boolean> overflow = rateLimitShaper.acquire("testToken", Priority.BATCH);
+
+        // Assert
+        assertTrue(overflow.isDone(), "Request should not wait when the queue is full.");
+        assertTrue(overflow.get(), "Request should be rate limited when the queue is full.");
+        clock.advance(WINDOW_MILLIS);
+        assertFalse(queued.get(3, TimeUnit.SECONDS), "Queued request should still be admitted.");
+        assertEquals(1, rateLimitService.getTokenCounters().get(rateLimitService.resolveKey("testToken"))
+                .getTotalRejected(), "Only the overflowing request should be counted as rejected.");
+    }
+
+    @Test
+    @DisplayName("Test interactive request takes the place of a batch request when the token queue is full")
+    public void testAcquire_QueueFullEvictsBatch() throws Exception {
+        // Arrange
+        shapingConfig.setMaxQueueSize(1);
+        rateLimitShaper.acquire("testToken", Priority.BATCH).get(1, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> batch = rateLimitShaper.acquire("testToken", Priority.BATCH);
+
+        // Act
+        CompletableFuture<Boolean> interactive = rateLimitShaper.acquire("testToken", Priority.INTERACTIVE);
+
+        // Assert
+        assertTrue(batch.isDone(), "Batch request should not wait once an interactive request needs its place.");
+        assertTrue(batch.get(), "Batch request should be rate limited.");
+        assertFalse(interactive.isDone(), "Interactive request should wait for the next window.");
+        clock.advance(WINDOW_MILLIS);
+        assertFalse(interactive.get(3, TimeUnit.SECONDS), "Interactive request should be admitted in the next window.");
+        assertEquals(1, rateLimitService.getTokenCounters().get(rateLimitService.resolveKey("testToken"))
+                .getTotalRejected(), "Only the evicted batch request should be counted as rejected.");
+    }
+
+    @Test
+    @DisplayName("Test waiting request completed by the caller leaves the queue and does not use a slot")
+    public void testAcquire_CompletedByCaller() throws Exception {
+        // Arrange
+        rateLimitShaper.acquire("testToken", Priority.BATCH).get(1, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> timedOut = rateLimitShaper.acquire("testToken", Priority.BATCH);
+
+        // Act - the caller gives up, as the controller does when the async request times out
+        timedOut.complete(true);
+        clock.advance(WINDOW_MILLIS);
+        Thread.sleep(50); // Lets a drain of the next window run, if one was still scheduled
+
+        // Assert
+        assertFalse(rateLimitShaper.acquire("testToken", Priority.BATCH).get(1, TimeUnit.SECONDS),
+                "The slot of the next window should still be free.");
+        TokenCounter counter = rateLimitService.getTokenCounters().get(rateLimitService.resolveKey("testToken"));
+        assertEquals(2, counter.getTotalAdmitted(), "The request given up on should not be admitted.");
+        assertEquals(1, counter.getTotalRejected(), "The request given up on should be counted as rejected.");
+    }
+
+    @Test
+    @DisplayName("Test request is rejected right away when shaping is disabled")
+    public void testAcquire_ShapingDisabled() throws Exception {
+        // Arrange
+        shapingConfig.setEnabled(false);
+        rateLimitShaper.acquire("testToken", Priority.BATCH).get(1, TimeUnit.SECONDS);
+
+        // Act
+        CompletableFuture<Boolean> result = rateLimitShaper.acquire("testToken", Priority.BATCH);
+
+        // Assert
+        assertTrue(result.isDone(), "Request should not wait when shaping is disabled.");
+        assertTrue(result.get(), "Request should be rate limited when shaping is disabled.");
+    }
+}
@@ -0,0 +1,256 @@
+package com.demo.ratelimiter.service;
+
+
+import com.demo.ratelimiter.config.RateLimitConfig;
+import com.demo.ratelimiter.config.TokenKeyConfig;
+import com.demo.ratelimiter.key.TokenKeyResolver;
+import com.demo.ratelimiter.util.MutableClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Simulation of heavy concurrent traffic in virtual time. Worker threads send requests without pause while a ticker
+ * thread moves the clock forward, so requests are in flight whenever a window boundary passes. The service reads the
+ * clock through a wrapper that yields now and then right after the read, so the clock often moves on while a request
+ * is being counted, even on few cores. Millions of requests cover many window boundaries in a few seconds.
+ * <p>
+ * The wrapper also records the time each thread last read, so every admission is attributed to the window its
+ * request was counted in. The ticker only leaves a window once every token sent it well over the limit, so each
+ * token must admit exactly the limit in every window, no more and no less. The time per request is reported against
+ * a single-threaded run, which shows how much throughput is lost to contention.
+ * <p>
+ * The service has a single admission engine, the fixed window counters, simulated both with hashed and with
+ * collision verified token keys. {@link RateLimitShaper} admits through the same counters but waits on a real
+ * scheduler, so it is out of scope here and covered by {@link RateLimitShaperTest}.
+ * <p>
+ * The number of requests per run can be changed with {@code -Dsimulation.requests=...}.
+ */
+public class RateLimitSimulationTest {
+
+    private static final int LIMIT = 1000;
+    private static final long INTERVAL_SECONDS = 1;
+    private static final long INTERVAL_MILLIS = INTERVAL_SECONDS * 1000;
+    // 3 ms before a window boundary, advancing by a step that does not divide the interval,
+    // so boundaries fall at a different point of the traffic every window.
+    private static final long START_MILLIS = 1_000_000_000L - 3;
+    private static final long STEP_MILLIS = 7;
+    private static final int REQUESTS_PER_STEP = 1000; // Sent by all workers together before the clock moves
+    private static final int YIELD_ONE_IN = 64; // Clock reads followed by a yield
+    private static final long TOTAL_REQUESTS = Long.getLong("simulation.requests", 1_000_000);
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    static Stream<Arguments> scenarios() {
+        List<Arguments> scenarios = new ArrayList<>();
+        for (boolean verifyCollisions : new boolean[]{false, true}) {
+            scenarios.add(Arguments.of(verifyCollisions, 1)); // Every thread on one hot token
+            scenarios.add(Arguments.of(verifyCollisions, 64)); // Traffic spread over many tokens
+        }
+        return scenarios.stream();
+    }
+
+    @ParameterizedTest(name = "verify collisions {0} with {1} token(s)")
+    @MethodSource("scenarios")
+    @DisplayName("Simulation - every window admits exactly the limit while boundaries pass under heavy concurrency")
+    public void testSimulation(boolean verifyCollisions, int tokenCount) throws Exception {
+        // Arrange - warm up the JIT so the single-threaded baseline is not measured on cold code
+        simulate(verifyCollisions, tokenCount, THREADS, TOTAL_REQUESTS / 4);
+
+        // Act
+        SimulationResult baseline = simulate(verifyCollisions, tokenCount, 1, TOTAL_REQUESTS / THREADS);
+        SimulationResult result = simulate(verifyCollisions, tokenCount, THREADS, TOTAL_REQUESTS);
+
+        // Report - time each thread spends per request; with no contention it would match the single-threaded run
+        System.out.printf("Verify collisions %s, %d token(s): %d requests over %d windows, "
+                        + "%.0f ns per request with 1 thread, %.0f ns with %d threads%n",
+                verifyCollisions, tokenCount, result.requests(), result.windows(),
+                baseline.nanosPerRequest(), result.nanosPerRequest(), THREADS);
+
+        // Assert
+        assertEquals(0, baseline.overAdmitted() + baseline.underAdmitted(),
+                "Single-threaded run should match the exact limiter.");
+        assertEquals(0, result.overAdmitted(), "No window should admit more requests than the limit.");
+        assertEquals(0, result.underAdmitted(), "Every token should admit the full limit in every window.");
+    }
+
+    private SimulationResult simulate(boolean verifyCollisions, int tokenCount, int threads, long totalRequests)
+            throws Exception {
+        MutableClock clock = new MutableClock(START_MILLIS);
+        YieldingClock yieldingClock = new YieldingClock(clock);
+        TokenKeyConfig tokenKeyConfig = new TokenKeyConfig();
+        tokenKeyConfig.setVerifyCollisions(verifyCollisions);
+        RateLimitService service = new RateLimitService(new RateLimitConfig(LIMIT, INTERVAL_SECONDS),
+                new TokenKeyResolver(tokenKeyConfig), yieldingClock);
+        String[] tokens = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            tokens[i] = "simulationToken" + i;
+        }
+
+        LongAdder sent = new LongAdder();
+        long[] busyNanos = new long[threads];
+        List<Map<Long, long[]>> threadAdmitted = new ArrayList<>(); // Per thread: window key to counts per token
+        for (int t = 0; t < threads; t++) {
+            threadAdmitted.add(new HashMap<>());
+        }
+        long firstWindowKey = windowKey(clock.millis());
+        long[] lastWindowKey = new long[1];
+        AtomicBoolean stopped = new AtomicBoolean();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                workers.add(executor.submit(() -> {
+                    Map<Long, long[]> admitted = threadAdmitted.get(thread);
+                    long start = System.nanoTime();
+                    for (long r = 0; !stopped.get(); r++) {
+                        // Every thread cycles through all tokens, so each token gets an even share of the traffic.
+                        int token = (int) ((r + thread) % tokenCount);
+                        boolean rateLimited = service.isRateLimited(tokens[token]);
+                        sent.increment();
+                        if (!rateLimited) {
+                            // The service reads the clock once per request, under its token's lock.
+                            long window = windowKey(yieldingClock.lastRead());
+                            admitted.computeIfAbsent(window, k -> new long[tokenCount])[token]++;
+                        }
+                    }
+                    busyNanos[thread] = System.nanoTime() - start;
+                    return null;
+                }));
+            }
+            Future<?> ticker = executor.submit(() -> {
+                long nextStep = REQUESTS_PER_STEP;
+                long windowStart = 0;
+                // Each token should see well over the limit in every window, the first and the last included.
+                long saturated = 2L * LIMIT * tokenCount;
+                while (true) {
+                    long count = sent.sum();
+                    boolean windowSaturated = count - windowStart >= saturated;
+                    if (count >= totalRequests && windowSaturated) {
+                        break;
+                    }
+                    long now = clock.millis();
+                    boolean crossesBoundary = windowKey(now + STEP_MILLIS) != windowKey(now);
+                    if (count < nextStep || (crossesBoundary && !windowSaturated)) {
+                        Thread.yield();
+                        continue;
+                    }
+                    clock.advance(STEP_MILLIS);
+                    nextStep = count + REQUESTS_PER_STEP;
+                    if (crossesBoundary) {
+                        windowStart = count;
+                    }
+                }
+                lastWindowKey[0] = windowKey(clock.millis());
+                stopped.set(true);
+                return null;
+            });
+            ticker.get();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<Long, long[]> windowAdmitted = new HashMap<>();
+        for (Map<Long, long[]> admitted : threadAdmitted) {
+            admitted.forEach((window, counts) -> {
+                long[] totals = windowAdmitted.computeIfAbsent(window, k -> new long[tokenCount]);
+                for (int i = 0; i < tokenCount; i++) {
+                    totals[i] += counts[i];
+                }
+            });
+        }
+        // Every window was saturated, so each token must have admitted exactly the limit in each of them.
+        long windows = (lastWindowKey[0] - firstWindowKey) / INTERVAL_MILLIS + 1;
+        long overAdmitted = 0;
+        long underAdmitted = 0;
+        for (long window = firstWindowKey; window <= lastWindowKey[0]; window += INTERVAL_MILLIS) {
+            long[] counts = windowAdmitted.getOrDefault(window, new long[tokenCount]);
+            for (long count : counts) {
+                overAdmitted += Math.max(0, count - LIMIT);
+                underAdmitted += Math.max(0, LIMIT - count);
+            }
+        }
+        long totalBusyNanos = 0;
+        for (long threadBusyNanos : busyNanos) {
+            totalBusyNanos += threadBusyNanos;
+        }
+        long requests = sent.sum();
+        return new SimulationResult(requests, windows, overAdmitted, underAdmitted, (double) totalBusyNanos / requests);
+    }
+
+    private static long windowKey(long millis) {
+        return millis / INTERVAL_MILLIS * INTERVAL_MILLIS;
+    }
+
+    private record SimulationResult(long requests, long windows, long overAdmitted, long underAdmitted,
+                                    double nanosPerRequest) {
+    }
+
+    /**
+     * Reads the time of a {@link MutableClock}, remembers it for the reading thread and now and then yields
+     * right after the read, so the clock can move on before the reader has used the time it read.
+     */
+    private static final class YieldingClock extends Clock {
+
+        private final Clock clock;
+        private final ThreadLocal<long[]> lastRead = ThreadLocal.withInitial(() -> new long[1]);
+
+        private YieldingClock(Clock clock) {
+            this.clock = clock;
+        }
+
+        /**
+         * @return The time the calling thread read last.
+         */
+        long lastRead() {
+            return lastRead.get()[0];
+        }
+
+        @Override
+        public long millis() {
+            long millis = clock.millis();
+            lastRead.get()[0] = millis;
+            if (ThreadLocalRandom.current().nextInt(YIELD_ONE_IN) == 0) {
+                Thread.yield();
+            }
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return clock.getZone();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new YieldingClock(clock.withZone(zone));
+        }
+    }
+}
@@ -45,7 +45,10 @@ public abstract class BaseRateLimiterTest {
     protected static final String BASE_PATH = "/api/v1/rate-limit";
     protected static final String CONFIGURE_ENDPOINT = BASE_PATH + "/configure";
     protected static final String IS_RATE_LIMITED_ENDPOINT = BASE_PATH + "/is_rate_limited/";
+    protected static final String ACQUIRE_ENDPOINT = BASE_PATH + "/acquire/";
     protected static final String GET_CONFIG_ENDPOINT = BASE_PATH + "/config";
+    protected static final String ADMIN_TOKENS_ENDPOINT = BASE_PATH + "/admin/tokens";
+    protected static final String ADMIN_TOP_ENDPOINT = BASE_PATH + "/admin/top";
 
 
     /**
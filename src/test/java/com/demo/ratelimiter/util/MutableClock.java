@@ -0,0 +1,66 @@
+package com.demo.ratelimiter.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual clock for tests: time only moves when the test sets or advances it. Safe to read from many threads.
+ * The clock runs in UTC; views in other zones share its time.
+ */
+public class MutableClock extends Clock {
+
+    private final AtomicLong millis;
+    private final ZoneId zone;
+
+    public MutableClock(long startMillis) {
+        this(new AtomicLong(startMillis), ZoneOffset.UTC);
+    }
+
+    private MutableClock(AtomicLong millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock forward.
+     * @param deltaMillis Milliseconds to advance by.
+     */
+    public void advance(long deltaMillis) {
+        millis.addAndGet(deltaMillis);
+    }
+
+    /**
+     * Sets the clock to the given time.
+     * @param epochMillis Milliseconds since the epoch.
+     */
+    public void set(long epochMillis) {
+        millis.set(epochMillis);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @param zone The time zone of the view.
+     * @return This clock if it is already in the zone, otherwise a view in the zone that moves with this clock.
+     */
+    @Override
+    public MutableClock withZone(ZoneId zone) {
+        return this.zone.equals(zone) ? this : new MutableClock(millis, zone);
+    }
+}
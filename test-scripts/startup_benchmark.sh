@@ -0,0 +1,90 @@
+#!/bin/bash
+
+# Measures startup time and memory of the rate limiter service, for tracking the sidecar footprint.
+# Startup time is measured from process launch until GET /config first answers,
+# memory is the resident set size (VmRSS) and its peak (VmHWM) after some warm-up requests.
+#
+# Usage: ./test-scripts/startup_benchmark.sh <command to start the service...>
+# Examples:
+#   ./test-scripts/startup_benchmark.sh ./build/native/nativeCompile/rate-limiter-service --spring.profiles.active=sidecar
+#   ./test-scripts/startup_benchmark.sh java -jar build/libs/rate-limiter-service-0.0.1-SNAPSHOT.jar
+
+# Base URL for the API
+BASE_URL="http://localhost:8082/api/v1/rate-limit"
+
+# Endpoints
+CONFIG_ENDPOINT="$BASE_URL/config"
+RATE_LIMITED_ENDPOINT="$BASE_URL/is_rate_limited/benchmarkToken"
+
+# Number of runs, warm-up requests per run and the startup target
+RUNS=${RUNS:-5}
+WARMUP_REQUESTS=${WARMUP_REQUESTS:-200}
+TARGET_MS=${TARGET_MS:-100}
+
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 <command to start the service...>"
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Function to start the service once and print "<startup ms> <rss kB> <peak rss kB>"
+measure_run() {
+    local start
+    start=$(now_ms)
+    "$@" > /dev/null 2>&1 &
+    local pid=$!
+
+    until curl -s -o /dev/null -f "$CONFIG_ENDPOINT"
+    do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Service exited before it answered" >&2
+            exit 1
+        fi
+        sleep 0.002
+    done
+    local startup=$(( $(now_ms) - start ))
+
+    for ((i=1; i<=WARMUP_REQUESTS; i++))
+    do
+        curl -s -o /dev/null "$RATE_LIMITED_ENDPOINT"
+    done
+    local rss hwm
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    hwm=$(awk '/VmHWM/ {print $2}' "/proc/$pid/status")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null
+    echo "$startup $rss $hwm"
+}
+
+# Main
+echo ""
+echo "Starting startup benchmark: $RUNS runs of: $*"
+echo ""
+RESULTS_FILE=$(mktemp)
+for ((run=1; run<=RUNS; run++))
+do
+    read -r startup rss hwm <<< "$(measure_run "$@")"
+    if [ -z "$startup" ]; then
+        rm "$RESULTS_FILE"
+        exit 1
+    fi
+    echo "Run $run: startup ${startup} ms, RSS $(( rss / 1024 )) MB, peak RSS $(( hwm / 1024 )) MB"
+    echo "$startup $rss $hwm" >> "$RESULTS_FILE"
+done
+
+MEDIAN_STARTUP=$(sort -n -k1 "$RESULTS_FILE" | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+MEDIAN_RSS=$(sort -n -k2 "$RESULTS_FILE" | awk '{a[NR]=$2} END {print a[int((NR+1)/2)]}')
+rm "$RESULTS_FILE"
+
+echo ""
+echo "Median startup: ${MEDIAN_STARTUP} ms (target ${TARGET_MS} ms), median RSS: $(( MEDIAN_RSS / 1024 )) MB"
+if [ "$MEDIAN_STARTUP" -le "$TARGET_MS" ]; then
+    echo "Startup target met."
+else
+    echo "Startup target missed."
+    exit 2
+fi